@@ -0,0 +1,58 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of scoring one guess against candidate sets of several sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntropyBenchmark {
+    private static final long SEED = 20220119L;
+    private static final int GUESSES = 256;
+
+    @Param({"2", "50", "500", "8606"})
+    private int candidateCount;
+
+    private EntropyKernel kernel;
+    private final int[] guessIds = new int[GUESSES];
+
+    @Setup
+    public void setUp() {
+        final WordList wordList = WordList.getDefault();
+        final Random random = new Random(SEED);
+        final int[] ids = new int[wordList.size()];
+        for (int id = 0; id < ids.length; id++) {
+            ids[id] = id;
+        }
+        for (int i = ids.length - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        final int[] candidates = Arrays.copyOf(ids, Math.min(this.candidateCount, ids.length));
+        Arrays.sort(candidates);
+        this.kernel = new EntropyKernel(wordList.feedback(), candidates);
+        for (int i = 0; i < GUESSES; i++) {
+            this.guessIds[i] = random.nextInt(wordList.size());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GUESSES)
+    public void entropy(Blackhole blackhole) {
+        for (final int guessId : this.guessIds) {
+            blackhole.consume(this.kernel.entropy(guessId));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing one feedback pattern: computed from letters, from strings or from packed words, computed a row at a
+ * time, or read from the matrix.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PatternBenchmark {
+    private static final long SEED = 20220119L;
+    private static final int PAIRS = 1024;
+
+    private FeedbackMatrix matrix;
+    private final int[] guessIds = new int[PAIRS];
+    private final int[] answerIds = new int[PAIRS];
+    private final String[] guesses = new String[PAIRS];
+    private final String[] answers = new String[PAIRS];
+    private final char[][] guessLetters = new char[PAIRS][];
+    private final char[][] answerLetters = new char[PAIRS][];
+    private final long[] packedGuesses = new long[PAIRS];
+    private final long[] packedAnswers = new long[PAIRS];
+    private final byte[] row = new byte[PAIRS];
+
+    @Setup
+    public void setUp() {
+        final WordList wordList = WordList.getDefault();
+        this.matrix = wordList.feedback();
+        final Random random = new Random(SEED);
+        for (int i = 0; i < PAIRS; i++) {
+            this.guessIds[i] = random.nextInt(wordList.size());
+            this.answerIds[i] = random.nextInt(wordList.size());
+            this.guesses[i] = wordList.word(this.guessIds[i]);
+            this.answers[i] = wordList.word(this.answerIds[i]);
+            this.guessLetters[i] = this.guesses[i].toCharArray();
+            this.answerLetters[i] = this.answers[i].toCharArray();
+            this.packedGuesses[i] = Patterns.pack(this.guesses[i]);
+            this.packedAnswers[i] = Patterns.pack(this.answers[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void computeFromLetters(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(Patterns.compute(this.guessLetters[i], this.answerLetters[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void computeFromStrings(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(Patterns.compute(this.guesses[i], this.answers[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void computeFromPacked(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(Patterns.compute(this.packedGuesses[i], this.packedAnswers[i], 5));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public byte[] computeRow() {
+        Patterns.compute(this.packedGuesses[0], this.packedAnswers, 5, this.row, 0);
+        return this.row;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void readFromMatrix(Blackhole blackhole) {
+        for (int i = 0; i < PAIRS; i++) {
+            blackhole.consume(this.matrix.pattern(this.guessIds[i], this.answerIds[i]));
+        }
+    }
+}
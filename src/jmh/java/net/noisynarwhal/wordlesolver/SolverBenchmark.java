@@ -0,0 +1,75 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the solver operations behind one /solve request, on the calling thread and without the cache or opening
+ * book: filtering the candidates with a guess, and ranking suggestions after 0, 1 or 2 guesses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolverBenchmark {
+    private static final long SEED = 20220119L;
+    private static final String[] OPENERS = {"TARES", "COLIN"};
+
+    private WordList wordList;
+    private Guess firstGuess;
+
+    @Setup
+    public void setUp() {
+        this.wordList = WordList.getDefault();
+        this.wordList.feedback();
+        this.firstGuess = SolverBenchmark.history(this.wordList, 1).get(0);
+    }
+
+    /**
+     * The guesses of a game against an answer drawn with the fixed seed.
+     */
+    private static List<Guess> history(WordList wordList, int length) {
+        final String answer = wordList.word(new Random(SEED).nextInt(wordList.size()));
+        final List<Guess> history = new ArrayList<>();
+        for (int i = 0; i < length; i++) {
+            history.add(new Guess(OPENERS[i], Patterns.feedback(OPENERS[i], answer)));
+        }
+        return history;
+    }
+
+    @State(Scope.Benchmark)
+    public static class History {
+        @Param({"0", "1", "2"})
+        private int historyLength;
+
+        private List<Guess> guesses;
+
+        @Setup
+        public void setUp() {
+            this.guesses = SolverBenchmark.history(WordList.getDefault(), this.historyLength);
+        }
+    }
+
+    @Benchmark
+    public CandidateSet update() {
+        final WordleSolver solver = new WordleSolver(this.wordList);
+        solver.update(this.firstGuess);
+        return solver.getPossibleWords();
+    }
+
+    @Benchmark
+    public SortedSet<Suggestion> getBestSuggestions(History history) {
+        final WordleSolver solver = new WordleSolver(this.wordList);
+        for (final Guess guess : history.guesses) {
+            solver.update(guess);
+        }
+        return solver.getBestSuggestions();
+    }
+}
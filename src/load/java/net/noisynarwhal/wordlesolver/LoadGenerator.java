@@ -0,0 +1,384 @@
+package net.noisynarwhal.wordlesolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the throughput and tail latency of {@code POST /api/v1/solve} under concurrent load. The application is
+ * started in this JVM on a random port, and a fixed number of workers each send one request at a time, so the
+ * concurrency is the number of requests in flight. Request bodies are the histories of games the {@link Simulator}
+ * plays against answers drawn with a fixed seed: every turn of a game that still needs a suggestion is one request,
+ * so the mix of early and late turns, and of repeated openings, follows real games. The games are spread over several
+ * openers and a share of the histories is sent in hard mode, so most turns after the first leave the opening book and
+ * the decision tree and are scored.
+ * <p>
+ * After a warmup, every response is timed, and the stop-the-world GC pauses of the JVM (server and workers alike) are
+ * recorded. Responses shedding load, 503 from admission control and 429 from a limiter in front of the service, count
+ * as rejected. The report is printed and written as JSON; when any request fails, more are rejected than allowed, or a
+ * latency or throughput objective is given and missed, the run exits with status 1 so it can gate a release.
+ */
+public class LoadGenerator {
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final URI solve;
+    private final HttpClient client;
+    private final List<HttpRequest> requests;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * The guesses of a game before one of its turns, as a request body.
+     *
+     * @param body     the guesses, as JSON
+     * @param hardMode whether the suggestions are asked for in hard mode
+     */
+    public record History(byte[] body, boolean hardMode) {
+    }
+
+    /**
+     * @param solve     the URI of the solve endpoint
+     * @param histories the histories, sent in turn
+     */
+    public LoadGenerator(URI solve, List<History> histories) {
+        this.solve = solve;
+        this.client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        final URI hardMode = URI.create(solve + "?hardMode=true");
+        this.requests = histories.stream()
+                .map(history -> HttpRequest.newBuilder(history.hardMode() ? hardMode : solve)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(history.body()))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * The response times of one worker.
+     */
+    private static final class Recorder {
+        private long[] nanos = new long[1 << 16];
+        private int count;
+        private int requests;
+        private int rejected;
+        private int errors;
+
+        private void record(long elapsed) {
+            if (this.count == this.nanos.length) {
+                this.nanos = Arrays.copyOf(this.nanos, this.count * 2);
+            }
+            this.nanos[this.count++] = elapsed;
+        }
+    }
+
+    /**
+     * Pauses reported by one garbage collector. Collectors that report concurrent cycles, such as "G1 Concurrent GC",
+     * "ZGC Cycles" or "Shenandoah Cycles", are left out, since most of a cycle runs alongside the application.
+     */
+    private static final class Pauses {
+        private int count;
+        private long totalMillis;
+        private long maxMillis;
+    }
+
+    /**
+     * Send requests from every worker until the deadline, timing those sent after the warmup.
+     *
+     * @param concurrency the number of workers
+     * @param warmup      the time before responses are timed
+     * @param duration    the time responses are timed
+     * @return the report
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public Map<String, Object> run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        final long measureFrom = System.nanoTime() + warmup.toNanos();
+        final long deadline = measureFrom + duration.toNanos();
+        final Map<String, Pauses> pauses = new ConcurrentSkipListMap<>();
+        final NotificationListener listener = (notification, handback) -> {
+            if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())
+                    && System.nanoTime() >= measureFrom) {
+                final GarbageCollectionNotificationInfo info =
+                        GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                if (info.getGcName().contains("Concurrent") || info.getGcName().endsWith("Cycles")) {
+                    return;
+                }
+                final long millis = info.getGcInfo().getDuration();
+                final Pauses collector = pauses.computeIfAbsent(info.getGcName(), name -> new Pauses());
+                synchronized (collector) {
+                    collector.count++;
+                    collector.totalMillis += millis;
+                    collector.maxMillis = Math.max(collector.maxMillis, millis);
+                }
+            }
+        };
+        final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        for (final GarbageCollectorMXBean collector : collectors) {
+            ((NotificationEmitter) collector).addNotificationListener(listener, null, null);
+        }
+
+        final ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        final List<Future<Recorder>> results = new ArrayList<>(concurrency);
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                results.add(workers.submit(() -> this.work(measureFrom, deadline)));
+            }
+            final Recorder total = new Recorder();
+            for (final Future<Recorder> result : results) {
+                final Recorder recorder = result.get();
+                for (int i = 0; i < recorder.count; i++) {
+                    total.record(recorder.nanos[i]);
+                }
+                total.requests += recorder.requests;
+                total.rejected += recorder.rejected;
+                total.errors += recorder.errors;
+            }
+            return this.report(concurrency, warmup, duration, total, pauses);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Load worker failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+            for (final GarbageCollectorMXBean collector : collectors) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(listener);
+                } catch (ListenerNotFoundException ignored) {
+                    // Not registered
+                }
+            }
+        }
+    }
+
+    private Recorder work(long measureFrom, long deadline) throws IOException, InterruptedException {
+        final Recorder recorder = new Recorder();
+        for (long now = System.nanoTime(); now < deadline; now = System.nanoTime()) {
+            final HttpRequest request = this.requests.get(Math.floorMod(this.next.getAndIncrement(),
+                    this.requests.size()));
+            final int status = this.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            final long elapsed = System.nanoTime() - now;
+            if (now < measureFrom) {
+                continue;
+            }
+            recorder.requests++;
+            if (status == 200) {
+                recorder.record(elapsed);
+            } else if (status == 503 || status == 429) {
+                recorder.rejected++;
+            } else {
+                recorder.errors++;
+            }
+        }
+        return recorder;
+    }
+
+    private Map<String, Object> report(int concurrency, Duration warmup, Duration duration, Recorder total,
+                                       Map<String, Pauses> pauses) {
+        final long[] nanos = Arrays.copyOf(total.nanos, total.count);
+        Arrays.sort(nanos);
+        final Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", LoadGenerator.percentile(nanos, 0.50));
+        latency.put("p99", LoadGenerator.percentile(nanos, 0.99));
+        latency.put("p999", LoadGenerator.percentile(nanos, 0.999));
+        latency.put("max", nanos.length == 0 ? 0.0 : nanos[nanos.length - 1] / 1e6);
+        latency.put("mean", Arrays.stream(nanos).average().orElse(0.0) / 1e6);
+
+        final Map<String, Object> gc = new LinkedHashMap<>();
+        pauses.forEach((name, collector) -> {
+            final Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", collector.count);
+            summary.put("totalMillis", collector.totalMillis);
+            summary.put("maxMillis", collector.maxMillis);
+            gc.put(name, summary);
+        });
+
+        final Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("concurrency", concurrency);
+        report.put("warmupSeconds", warmup.toSeconds());
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("histories", this.requests.size());
+        final double seconds = duration.toNanos() / 1e9;
+        report.put("requests", total.requests);
+        report.put("succeeded", nanos.length);
+        report.put("rejected", total.rejected);
+        report.put("errors", total.errors);
+        report.put("requestsPerSecond", total.requests / seconds);
+        report.put("succeededPerSecond", nanos.length / seconds);
+        report.put("latencyMillis", latency);
+        report.put("gcPauses", gc);
+        return report;
+    }
+
+    /**
+     * @param sorted   response times in nanoseconds, in ascending order
+     * @param quantile the quantile, between 0 and 1
+     * @return the response time in milliseconds below which the quantile falls, by the nearest-rank method
+     */
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        final int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1e6;
+    }
+
+    /**
+     * Draw the histories: the guesses before each turn of the games played against answers drawn from the word list,
+     * the answers dealt to the openers in turn, shuffled. The histories of a share of the games are sent in hard mode.
+     */
+    private static List<History> histories(ObjectMapper objectMapper, int games, List<String> openers,
+                                           double hardMode, long seed) throws IOException {
+        final WordList wordList = WordList.getDefault();
+        final List<String> answers = new ArrayList<>(wordList.words());
+        final Random random = new Random(seed);
+        Collections.shuffle(answers, random);
+        final List<String> drawn = answers.subList(0, Math.min(games, answers.size()));
+
+        final ForkJoinPool pool = new ForkJoinPool();
+        final List<History> histories = new ArrayList<>();
+        try {
+            for (int i = 0; i < openers.size(); i++) {
+                final List<String> dealt = new ArrayList<>();
+                for (int answer = i; answer < drawn.size(); answer += openers.size()) {
+                    dealt.add(drawn.get(answer));
+                }
+                for (final List<Guess> game : new Simulator(wordList, openers.get(i), pool).games(dealt)) {
+                    final boolean hard = random.nextDouble() < hardMode;
+                    for (int turn = 0; turn < game.size(); turn++) {
+                        histories.add(new History(objectMapper.writeValueAsBytes(game.subList(0, turn)), hard));
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        Collections.shuffle(histories, random);
+        return histories;
+    }
+
+    /**
+     * Start the application on a random port, load it and write the report. Options:
+     * <ul>
+     *     <li>{@code --concurrency=N}: the number of requests in flight (default: 16)</li>
+     *     <li>{@code --warmup=SECONDS}: the time before responses are timed (default: 10)</li>
+     *     <li>{@code --duration=SECONDS}: the time responses are timed (default: 30)</li>
+     *     <li>{@code --games=N}: the number of games whose histories are replayed (default: 500)</li>
+     *     <li>{@code --openers=WORD,...}: the first guesses, each opening an equal share of the games (default:
+     *     TARES,CRANE,SLATE,CLOUT)</li>
+     *     <li>{@code --hard-mode=FRACTION}: the share of games whose histories are sent in hard mode (default:
+     *     0.25)</li>
+     *     <li>{@code --seed=N}: the seed the answers and the order of requests are drawn with</li>
+     *     <li>{@code --report=FILE}: the JSON report (default: load-report.json)</li>
+     *     <li>{@code --max-p99=MILLIS}: fail if the p99 response time is above this</li>
+     *     <li>{@code --min-rps=N}: fail if fewer requests per second succeed</li>
+     *     <li>{@code --max-rejected=N}: fail if more requests are rejected with 503 or 429 (default: 0)</li>
+     * </ul>
+     * Any other option is passed to the application, e.g. {@code --solver.dictionary-file=target/wordlesolver.dict}.
+     *
+     * @param args the command line arguments
+     * @throws Exception if the application cannot start or the report cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        int concurrency = 16;
+        Duration warmup = Duration.ofSeconds(10);
+        Duration duration = Duration.ofSeconds(30);
+        int games = 500;
+        List<String> openers = List.of("TARES", "CRANE", "SLATE", "CLOUT");
+        double hardMode = 0.25;
+        long seed = 20220119L;
+        Path reportFile = Path.of("load-report.json");
+        Double maxP99 = null;
+        Double minRps = null;
+        int maxRejected = 0;
+        final List<String> applicationArgs = new ArrayList<>(List.of("--server.port=0"));
+
+        for (final String arg : args) {
+            final String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--concurrency=")) {
+                concurrency = Integer.parseInt(value);
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Duration.ofSeconds(Long.parseLong(value));
+            } else if (arg.startsWith("--duration=")) {
+                duration = Duration.ofSeconds(Long.parseLong(value));
+            } else if (arg.startsWith("--games=")) {
+                games = Integer.parseInt(value);
+            } else if (arg.startsWith("--openers=")) {
+                openers = List.of(value.split(","));
+            } else if (arg.startsWith("--hard-mode=")) {
+                hardMode = Double.parseDouble(value);
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(value);
+            } else if (arg.startsWith("--report=")) {
+                reportFile = Path.of(value);
+            } else if (arg.startsWith("--max-p99=")) {
+                maxP99 = Double.parseDouble(value);
+            } else if (arg.startsWith("--min-rps=")) {
+                minRps = Double.parseDouble(value);
+            } else if (arg.startsWith("--max-rejected=")) {
+                maxRejected = Integer.parseInt(value);
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+        if (concurrency < 1 || duration.isZero() || duration.isNegative() || games < 1) {
+            throw new IllegalArgumentException("Concurrency, duration and games must be positive");
+        }
+
+        final ObjectMapper objectMapper = new ObjectMapper();
+        final List<History> histories = LoadGenerator.histories(objectMapper, games, openers, hardMode, seed);
+        final Map<String, Object> report;
+        try (final ConfigurableApplicationContext context = SpringApplication.run(Application.class,
+                applicationArgs.toArray(String[]::new))) {
+            final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            final String basePath = context.getEnvironment().getProperty("api.base-path", "");
+            logger.info("Sending {} histories to port {} from {} workers for {} s after a {} s warmup",
+                    histories.size(), port, concurrency, duration.toSeconds(), warmup.toSeconds());
+            report = new LoadGenerator(URI.create("http://localhost:" + port + basePath + "/solve"), histories)
+                    .run(concurrency, warmup, duration);
+        }
+
+        final double p99 = (double) ((Map<?, ?>) report.get("latencyMillis")).get("p99");
+        final double rps = (double) report.get("succeededPerSecond");
+        final int rejected = (int) report.get("rejected");
+        final boolean passed = (maxP99 == null || p99 <= maxP99) && (minRps == null || rps >= minRps)
+                && rejected <= maxRejected && (int) report.get("errors") == 0;
+        final Map<String, Object> objectives = new LinkedHashMap<>();
+        objectives.put("maxP99Millis", maxP99);
+        objectives.put("minSucceededPerSecond", minRps);
+        objectives.put("maxRejected", maxRejected);
+        objectives.put("passed", passed);
+        report.put("objectives", objectives);
+
+        final String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report);
+        if (reportFile.getParent() != null) {
+            Files.createDirectories(reportFile.getParent());
+        }
+        Files.writeString(reportFile, json);
+        System.out.println(json);
+        logger.info("Wrote {}", reportFile.toAbsolutePath());
+        if (!passed) {
+            logger.error("Load test missed its objectives: p99 {} ms, {} succeeded/s, {} rejected, {} errors",
+                    String.format("%.2f", p99), String.format("%.1f", rps), rejected, report.get("errors"));
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package net.noisynarwhal.wordlesolver;
+
+/**
+ * The letters that the words of a dictionary are spelled with. Each letter is identified by its position in the
+ * alphabet counting from 1, which is the 5-bit code it takes in a packed word (see {@link Patterns}), so an alphabet
+ * has at most {@value #MAX_SIZE} letters.
+ */
+public final class Alphabet {
+    public static final int MAX_SIZE = 31;
+    private static final Alphabet LATIN = new Alphabet("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+
+    private final String letters;
+
+    private Alphabet(String letters) {
+        this.letters = letters;
+    }
+
+    /**
+     * @return the alphabet of the 26 upper case letters from A to Z
+     */
+    public static Alphabet latin() {
+        return LATIN;
+    }
+
+    /**
+     * @param letters the upper case letters of the alphabet, in order
+     * @return the alphabet
+     * @throws IllegalArgumentException if there are no letters, more than {@value #MAX_SIZE}, or repeated letters
+     */
+    public static Alphabet of(String letters) {
+        if (letters.equals(LATIN.letters)) {
+            return LATIN;
+        }
+        if (letters.isEmpty() || letters.length() > MAX_SIZE) {
+            throw new IllegalArgumentException("Alphabet must have 1 to " + MAX_SIZE + " letters: '" + letters + '\'');
+        }
+        for (int i = 0; i < letters.length(); i++) {
+            final char letter = letters.charAt(i);
+            if (!Character.isLetter(letter) || Character.toUpperCase(letter) != letter
+                    || letters.indexOf(letter) != i) {
+                throw new IllegalArgumentException("Alphabet letters must be distinct upper case letters: '"
+                        + letters + '\'');
+            }
+        }
+        return new Alphabet(letters);
+    }
+
+    /**
+     * @return the letters of the alphabet, in order
+     */
+    public String letters() {
+        return this.letters;
+    }
+
+    /**
+     * @return the number of letters
+     */
+    public int size() {
+        return this.letters.length();
+    }
+
+    /**
+     * @param letter an upper case letter
+     * @return the position of the letter in the alphabet counting from 1, or 0 if it is not in the alphabet
+     */
+    public int code(char letter) {
+        return this.letters.indexOf(letter) + 1;
+    }
+
+    /**
+     * @param word   an upper case word
+     * @param length the required length
+     * @return whether the word has the length and is spelled with the letters of the alphabet
+     */
+    public boolean isWord(String word, int length) {
+        if (word.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (this.code(word.charAt(i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Pack the letters of a word into a long, one 5-bit lane per position holding the code of the letter, position 0
+     * in the lowest bits. Upper and lower case pack the same.
+     *
+     * @param word a word of 1 to {@value Patterns#MAX_WORD_LENGTH} letters
+     * @return the packed word
+     * @throws IllegalArgumentException if the word is too long or has a letter outside the alphabet
+     */
+    public long pack(CharSequence word) {
+        if (word.isEmpty() || word.length() > Patterns.MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word must be 1 to " + Patterns.MAX_WORD_LENGTH + " letters long: '"
+                    + word + '\'');
+        }
+        long packed = 0;
+        for (int i = 0; i < word.length(); i++) {
+            final int code = this.code(Character.toUpperCase(word.charAt(i)));
+            if (code == 0) {
+                throw new IllegalArgumentException("Word has letters outside the alphabet " + this.letters + ": '"
+                        + word + '\'');
+            }
+            packed |= (long) code << (i * Patterns.LANE_BITS);
+        }
+        return packed;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof Alphabet alphabet && this.letters.equals(alphabet.letters);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.letters.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.letters;
+    }
+}
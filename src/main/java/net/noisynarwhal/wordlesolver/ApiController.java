@@ -1,18 +1,43 @@
 package net.noisynarwhal.wordlesolver;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("${api.base-path}")
 public class ApiController {
+    private static final int BATCH_WINDOW_PER_THREAD = 2;
     private final VersionConfig versionConfig;
+    private final SolverService solverService;
+    private final ObjectMapper objectMapper;
+    private final SolverMetrics solverMetrics;
 
     @Autowired
-    public ApiController(VersionConfig versionConfig) {
+    public ApiController(VersionConfig versionConfig, SolverService solverService, ObjectMapper objectMapper,
+                         SolverMetrics solverMetrics) {
         this.versionConfig = versionConfig;
+        this.solverService = solverService;
+        this.objectMapper = objectMapper;
+        this.solverMetrics = solverMetrics;
     }
 
     @GetMapping(
@@ -32,22 +57,206 @@ public class ApiController {
             produces = MediaType.APPLICATION_JSON_VALUE,
             consumes = MediaType.APPLICATION_JSON_VALUE
     )
-    public Map<String, Object> solve(@RequestBody List<Guess> guesses) {
+    public ResponseEntity<byte[]> solve(@RequestBody List<Guess> guesses,
+                                        @RequestParam(required = false) String dictionary,
+                                        @RequestParam(defaultValue = "false") boolean hardMode,
+                                        @RequestParam(required = false) String strategy,
+                                        @RequestParam(required = false) Long budgetMs,
+                                        @RequestParam(required = false) Integer limit,
+                                        @RequestParam(required = false) String format) {
+        final SuggestionFormat suggestionFormat = SuggestionFormat.of(format);
+        final List<Suggestion> suggestions = this.solve(guesses, dictionary, hardMode, strategy, budgetMs, limit);
+        return this.respond(suggestions, limit, suggestionFormat);
+    }
+
+    private ResponseEntity<byte[]> respond(List<Suggestion> suggestions, Integer limit, SuggestionFormat format) {
+        final List<Suggestion> page = ApiController.limit(suggestions, limit);
+
+        // Serialize here rather than in the message converter, so that the serialization stage is timed
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(this.solverMetrics.time(SolverMetrics.STAGE_SERIALIZE, () -> {
+                    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                    try (final JsonGenerator generator = this.createGenerator(buffer)) {
+                        this.writeSolve(generator, page, suggestions.size(), format);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Could not serialize the response", e);
+                    }
+                    return buffer.toByteArray();
+                }));
+    }
+
+    /**
+     * Solve with {@code ?stream=true}: the response is written straight to the client as the generator's buffer fills,
+     * instead of being built in memory first. Suggestions are still ranked in full, and the total counted, before the
+     * first byte is written: scorers return a complete ranking, so streaming saves the response buffer, not the time
+     * to the first suggestion. It is not timed as serialization, since that includes the time the client takes to
+     * read.
+     */
+    @PostMapping(
+            path = "/solve",
+            params = "stream=true",
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> solveStreamed(@RequestBody List<Guess> guesses,
+                                                               @RequestParam(required = false) String dictionary,
+                                                               @RequestParam(defaultValue = "false") boolean hardMode,
+                                                               @RequestParam(required = false) String strategy,
+                                                               @RequestParam(required = false) Long budgetMs,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               @RequestParam(required = false) String format) {
+        final SuggestionFormat suggestionFormat = SuggestionFormat.of(format);
+        final List<Suggestion> suggestions = this.solve(guesses, dictionary, hardMode, strategy, budgetMs, limit);
+        final List<Suggestion> page = ApiController.limit(suggestions, limit);
+
+        final StreamingResponseBody body = out -> {
+            try (final JsonGenerator generator = this.createGenerator(out)) {
+                this.writeSolve(generator, page, suggestions.size(), suggestionFormat);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private List<Suggestion> solve(List<Guess> guesses, String dictionary, boolean hardMode, String strategy,
+                                   Long budgetMs, Integer limit) {
+        ApiController.checkLimit(limit);
+        return this.solverService.solve(this.solverService.initialState(dictionary, hardMode), guesses, strategy,
+                budgetMs == null ? null : Duration.ofMillis(budgetMs));
+    }
 
-        final WordleSolver solver = new WordleSolver();
+    private void writeSolve(JsonGenerator generator, List<Suggestion> suggestions, int total, SuggestionFormat format)
+            throws IOException {
+        // The small fields come first, so that a client reading a streamed response has them before the suggestions
+        generator.writeStartObject();
+        generator.writeNumberField("count", suggestions.size());
+        generator.writeNumberField("total", total);
+        generator.writeNumberField("timestamp", System.currentTimeMillis());
+        generator.writeStringField("apiVersion", this.versionConfig.getVersion());
+        generator.writeFieldName("suggestions");
+        format.write(generator, suggestions);
+        generator.writeEndObject();
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        final JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return generator;
+    }
 
-        for(final Guess guess : guesses) {
-            solver.update(guess);
+    private static void checkLimit(Integer limit) {
+        if (limit != null && limit < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + limit);
         }
+    }
 
-        final SortedSet<Suggestion> suggestions = solver.getBestSuggestions();
+    private static List<Suggestion> limit(List<Suggestion> suggestions, Integer limit) {
+        return limit == null || limit >= suggestions.size() ? suggestions : suggestions.subList(0, limit);
+    }
 
-        return Map.of(
-                "suggestions", suggestions,
-                "timestamp", System.currentTimeMillis(),
-                "count", suggestions.size(),
-                "apiVersion", this.versionConfig.getVersion()
-        );
+    /**
+     * Solve Dordle, Quordle and other games played on up to {@value SolverService#MAX_BOARDS} boards at once: each
+     * board lists the guesses made so far with its own feedback, and the suggestions rank guesses by their summed
+     * entropy over the unsolved boards.
+     */
+    @PostMapping(
+            path = "/solve/boards",
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<byte[]> solveBoards(@RequestBody List<List<Guess>> boards,
+                                              @RequestParam(required = false) String dictionary,
+                                              @RequestParam(required = false) Integer limit,
+                                              @RequestParam(required = false) String format) {
+        final SuggestionFormat suggestionFormat = SuggestionFormat.of(format);
+        ApiController.checkLimit(limit);
+        final List<Suggestion> suggestions = this.solverService.solveBoards(
+                this.solverService.initialState(dictionary), boards);
+        return this.respond(suggestions, limit, suggestionFormat);
+    }
+
+    /**
+     * Solve many independent games over one dictionary in one request. The batch is admitted once, games are scored
+     * concurrently, with a bounded number in flight, and one JSON line per game is streamed back in request order.
+     */
+    @PostMapping(
+            path = "/solve/batch",
+            produces = MediaType.APPLICATION_NDJSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public ResponseEntity<StreamingResponseBody> solveBatch(@RequestBody List<List<Guess>> games,
+                                                            @RequestParam(required = false) String dictionary,
+                                                            @RequestParam(defaultValue = "false") boolean hardMode,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) String format,
+                                                            WebRequest webRequest) {
+        final SuggestionFormat suggestionFormat = SuggestionFormat.of(format);
+        ApiController.checkLimit(limit);
+        final int window = this.solverService.getParallelism() * BATCH_WINDOW_PER_THREAD;
+        final SolverState initial = this.solverService.initialState(dictionary, hardMode);
+        ApiController.checkGames(initial.wordList(), games);
+        final SolverAdmission.Permit permit = this.solverService.admit();
+        // The body may never run if the request times out or fails first, so the permit is also released on completion
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(permit,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        permit.close();
+                    }
+                });
+
+        final StreamingResponseBody body = out -> {
+            try (permit) {
+                this.streamBatch(initial, games, window, limit, suggestionFormat, out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Check every guess of a batch before the response is committed, so a bad game is rejected as a whole rather than
+     * failing the stream part way through.
+     */
+    private static void checkGames(WordList wordList, List<List<Guess>> games) {
+        for (int index = 0; index < games.size(); index++) {
+            for (final Guess guess : games.get(index)) {
+                if (!wordList.alphabet().isWord(guess.word(), wordList.length())) {
+                    throw new IllegalArgumentException("Game " + index + " has guess '" + guess.word()
+                            + "' that is not a " + wordList.length() + "-letter word of the alphabet "
+                            + wordList.alphabet().letters());
+                }
+            }
+        }
+    }
+
+    private void streamBatch(SolverState initial, List<List<Guess>> games, int window, Integer limit,
+                             SuggestionFormat format, OutputStream out) throws IOException {
+        final Deque<CompletableFuture<List<Suggestion>>> pending = new ArrayDeque<>(window);
+        try (final JsonGenerator generator = this.createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            int next = 0;
+            for (int index = 0; index < games.size(); index++) {
+                while (next < games.size() && pending.size() < window) {
+                    pending.add(this.solverService.solveAsync(initial, games.get(next++)));
+                }
+                final List<Suggestion> suggestions = pending.remove().join();
+                final List<Suggestion> page = ApiController.limit(suggestions, limit);
+                generator.writeStartObject();
+                generator.writeNumberField("index", index);
+                generator.writeNumberField("count", page.size());
+                generator.writeNumberField("total", suggestions.size());
+                generator.writeFieldName("suggestions");
+                format.write(generator, page);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                generator.flush();
+            }
+        }
     }
 
 }
\ No newline at end of file
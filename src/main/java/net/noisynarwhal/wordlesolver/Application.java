@@ -11,7 +11,11 @@ import java.util.Arrays;
 @SpringBootApplication
 public class Application {
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        if (Arrays.asList(args).contains(Simulator.CLI_FLAG)) {
+            Simulator.main(args);
+            return;
+        }
         SpringApplication.run(Application.class, args);
     }
 
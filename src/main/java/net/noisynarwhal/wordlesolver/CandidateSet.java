@@ -0,0 +1,182 @@
+package net.noisynarwhal.wordlesolver;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * An immutable set of word IDs stored as a bitset of {@code long} words. Narrowing a set produces a new set; the
+ * filter is evaluated one 64-bit block at a time and applied with a single AND per block.
+ */
+public final class CandidateSet {
+    private final int universe;
+    private final long[] bits;
+    private final int cardinality;
+    private final int hash;
+
+    private CandidateSet(int universe, long[] bits) {
+        this.universe = universe;
+        this.bits = bits;
+        int count = 0;
+        for (final long block : bits) {
+            count += Long.bitCount(block);
+        }
+        this.cardinality = count;
+        this.hash = Arrays.hashCode(bits);
+    }
+
+    /**
+     * Create the set of all IDs from 0 to {@code universe - 1}.
+     *
+     * @param universe the number of words in the dictionary
+     * @return the full set
+     */
+    public static CandidateSet all(int universe) {
+        final long[] bits = new long[(universe + 63) >>> 6];
+        Arrays.fill(bits, -1L);
+        if ((universe & 63) != 0) {
+            bits[bits.length - 1] = (1L << universe) - 1;
+        }
+        return new CandidateSet(universe, bits);
+    }
+
+    /**
+     * Create the set of the given IDs.
+     *
+     * @param universe the number of words in the dictionary
+     * @param ids      an array holding the IDs
+     * @param from     the index of the first ID in the array
+     * @param to       the index after the last ID in the array
+     * @return the set
+     */
+    public static CandidateSet of(int universe, int[] ids, int from, int to) {
+        final long[] bits = new long[(universe + 63) >>> 6];
+        for (int i = from; i < to; i++) {
+            bits[ids[i] >>> 6] |= 1L << ids[i];
+        }
+        return new CandidateSet(universe, bits);
+    }
+
+    /**
+     * Narrow this set to the IDs accepted by the filter.
+     *
+     * @param filter the filter to apply to each ID in the set
+     * @return the narrowed set, or this set if nothing was removed
+     */
+    public CandidateSet retain(IntPredicate filter) {
+        final long[] narrowed = new long[this.bits.length];
+        boolean changed = false;
+        for (int i = 0; i < this.bits.length; i++) {
+            final long block = this.bits[i];
+            long keep = 0L;
+            for (long remaining = block; remaining != 0; remaining &= remaining - 1) {
+                final int bit = Long.numberOfTrailingZeros(remaining);
+                if (filter.test((i << 6) + bit)) {
+                    keep |= 1L << bit;
+                }
+            }
+            narrowed[i] = block & keep;
+            changed |= narrowed[i] != block;
+        }
+        return changed ? new CandidateSet(this.universe, narrowed) : this;
+    }
+
+    /**
+     * @param other a set drawn from the same dictionary
+     * @return the IDs in both sets, or this set if it holds no ID missing from the other
+     */
+    public CandidateSet and(CandidateSet other) {
+        return this.combine(other, (a, b) -> a & b);
+    }
+
+    /**
+     * @param other a set drawn from the same dictionary
+     * @return the IDs in this set but not the other, or this set if the sets share no ID
+     */
+    public CandidateSet andNot(CandidateSet other) {
+        return this.combine(other, (a, b) -> a & ~b);
+    }
+
+    /**
+     * @param other a set drawn from the same dictionary
+     * @return the IDs in either set, or this set if it holds every ID of the other
+     */
+    public CandidateSet or(CandidateSet other) {
+        return this.combine(other, (a, b) -> a | b);
+    }
+
+    private CandidateSet combine(CandidateSet other, LongBinaryOperator operator) {
+        if (other.universe != this.universe) {
+            throw new IllegalArgumentException("Sets are drawn from dictionaries of " + this.universe + " and "
+                    + other.universe + " words");
+        }
+        final long[] combined = new long[this.bits.length];
+        boolean changed = false;
+        for (int i = 0; i < this.bits.length; i++) {
+            combined[i] = operator.applyAsLong(this.bits[i], other.bits[i]);
+            changed |= combined[i] != this.bits[i];
+        }
+        return changed ? new CandidateSet(this.universe, combined) : this;
+    }
+
+    /**
+     * @param id a word ID
+     * @return true if the ID is in the set
+     */
+    public boolean contains(int id) {
+        return (this.bits[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * @return the number of IDs in the set
+     */
+    public int cardinality() {
+        return this.cardinality;
+    }
+
+    /**
+     * @return true if the set is empty
+     */
+    public boolean isEmpty() {
+        return this.cardinality == 0;
+    }
+
+    /**
+     * @return the number of words in the dictionary the set is drawn from
+     */
+    public int universe() {
+        return this.universe;
+    }
+
+    /**
+     * @return the IDs in the set, in ascending order
+     */
+    public int[] toArray() {
+        final int[] ids = new int[this.cardinality];
+        int n = 0;
+        for (int i = 0; i < this.bits.length; i++) {
+            for (long remaining = this.bits[i]; remaining != 0; remaining &= remaining - 1) {
+                ids[n++] = (i << 6) + Long.numberOfTrailingZeros(remaining);
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) return true;
+        if (other == null || getClass() != other.getClass()) return false;
+        final CandidateSet that = (CandidateSet) other;
+        return this.universe == that.universe && this.hash == that.hash && Arrays.equals(this.bits, that.bits);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return "CandidateSet{" + this.cardinality + '/' + this.universe + '}';
+    }
+}
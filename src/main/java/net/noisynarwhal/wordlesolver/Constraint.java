@@ -0,0 +1,215 @@
+package net.noisynarwhal.wordlesolver;
+
+import java.util.Arrays;
+
+/**
+ * The constraints that the feedback of one or more guesses puts on the answer, compiled so that a candidate is
+ * checked with a few mask operations on its packed letters (see {@link Alphabet#pack(CharSequence)}) instead of
+ * computing a pattern per guess:
+ * <ul>
+ *     <li>for each position, the mask of letters it may hold: the green letter, or any letter but those marked yellow
+ *     or black there</li>
+ *     <li>for each letter, the minimum number of occurrences (its green and yellow marks), which is also the exact
+ *     number when the letter is also marked black</li>
+ * </ul>
+ * A word satisfies the constraint of a guess exactly when guessing it against that word would give the feedback.
+ * Feedback that no word can produce, such as a yellow letter after a black occurrence of the same letter, gives an
+ * unsatisfiable constraint. Constraints of several guesses combine into one, so a whole history is applied in a
+ * single pass over the candidates.
+ */
+public final class Constraint {
+    private static final int ALPHABET_SIZE = Alphabet.MAX_SIZE;
+    /**
+     * Every letter code, from 1 to {@value Alphabet#MAX_SIZE}.
+     */
+    private static final int ANY_LETTER = ~1;
+
+    private final int length;
+    private final int[] allowed;
+    private final int[] minCounts;
+    private final int[] maxCounts;
+    private final int[] countedLetters;
+    private final boolean satisfiable;
+
+    private Constraint(int[] allowed, int[] minCounts, int[] maxCounts, boolean satisfiable) {
+        this.length = allowed.length;
+        this.minCounts = minCounts;
+        this.maxCounts = maxCounts;
+
+        // Absent letters are ruled out at every position instead of being counted
+        int absent = 0;
+        for (int letter = 1; letter <= ALPHABET_SIZE; letter++) {
+            if (maxCounts[letter] == 0) {
+                absent |= 1 << letter;
+            }
+        }
+        this.allowed = new int[this.length];
+        for (int i = 0; i < this.length; i++) {
+            this.allowed[i] = allowed[i] & ~absent;
+            satisfiable &= this.allowed[i] != 0;
+        }
+
+        // Only count the letters whose counts the position masks do not already imply
+        int counted = 0;
+        int required = 0;
+        final int[] letters = new int[ALPHABET_SIZE];
+        for (int letter = 1; letter <= ALPHABET_SIZE; letter++) {
+            int fixed = 0;
+            int possible = 0;
+            for (final int mask : this.allowed) {
+                fixed += mask == 1 << letter ? 1 : 0;
+                possible += (mask >>> letter) & 1;
+            }
+            if (minCounts[letter] > fixed || maxCounts[letter] < possible) {
+                letters[counted++] = letter;
+            }
+            required += minCounts[letter];
+        }
+        this.countedLetters = Arrays.copyOf(letters, counted);
+        this.satisfiable = satisfiable && required <= this.length;
+    }
+
+    /**
+     * @param length the length of the words
+     * @return the constraint that every word of the length satisfies
+     */
+    public static Constraint none(int length) {
+        final int[] allowed = new int[length];
+        Arrays.fill(allowed, ANY_LETTER);
+        final int[] maxCounts = new int[ALPHABET_SIZE + 1];
+        Arrays.fill(maxCounts, length);
+        return new Constraint(allowed, new int[ALPHABET_SIZE + 1], maxCounts, true);
+    }
+
+    /**
+     * Compile the feedback of a guess spelled with the {@link Alphabet#latin() Latin alphabet}.
+     *
+     * @param guess the guess and its feedback
+     * @return the constraint on the answer
+     */
+    public static Constraint of(Guess guess) {
+        return Constraint.of(guess, Alphabet.latin());
+    }
+
+    /**
+     * Compile the feedback of a guess.
+     *
+     * @param guess    the guess and its feedback
+     * @param alphabet the alphabet the guess is spelled with
+     * @return the constraint on the answer
+     * @throws IllegalArgumentException if the guess has letters outside the alphabet
+     */
+    public static Constraint of(Guess guess, Alphabet alphabet) {
+        final long packed = alphabet.pack(guess.word());
+        final String feedback = guess.feedback();
+        final int length = feedback.length();
+        final int[] allowed = new int[length];
+        final int[] minCounts = new int[ALPHABET_SIZE + 1];
+        final int[] maxCounts = new int[ALPHABET_SIZE + 1];
+        Arrays.fill(maxCounts, length);
+        Arrays.fill(allowed, ANY_LETTER);
+        int blackLetters = 0;
+        boolean satisfiable = true;
+
+        for (int i = 0; i < length; i++) {
+            final int letter = Patterns.letter(packed, i);
+            final int bit = 1 << letter;
+            switch (feedback.charAt(i)) {
+                case 'G' -> {
+                    allowed[i] = bit;
+                    minCounts[letter]++;
+                }
+                case 'Y' -> {
+                    allowed[i] &= ~bit;
+                    minCounts[letter]++;
+                    // Yellows go to the leftmost unmatched occurrences of a letter, so none follows a black one
+                    satisfiable &= (blackLetters & bit) == 0;
+                }
+                default -> {
+                    allowed[i] &= ~bit;
+                    blackLetters |= bit;
+                }
+            }
+        }
+        for (int letter = 1; letter <= ALPHABET_SIZE; letter++) {
+            if ((blackLetters & (1 << letter)) != 0) {
+                maxCounts[letter] = minCounts[letter];
+            }
+        }
+        return new Constraint(allowed, minCounts, maxCounts, satisfiable);
+    }
+
+    /**
+     * Compile the feedback of a sequence of guesses spelled with the {@link Alphabet#latin() Latin alphabet} into one
+     * constraint.
+     *
+     * @param guesses the guesses and their feedback, at least one
+     * @return the constraint on the answer
+     */
+    public static Constraint of(Iterable<Guess> guesses) {
+        Constraint constraint = null;
+        for (final Guess guess : guesses) {
+            constraint = constraint == null ? Constraint.of(guess) : constraint.and(Constraint.of(guess));
+        }
+        if (constraint == null) {
+            throw new IllegalArgumentException("No guesses to compile");
+        }
+        return constraint;
+    }
+
+    /**
+     * @param other another constraint, on words of the same length
+     * @return the constraint satisfied by the words that satisfy both
+     * @throws IllegalArgumentException if the constraints are on words of different lengths
+     */
+    public Constraint and(Constraint other) {
+        if (other.length != this.length) {
+            throw new IllegalArgumentException("Constraints are on words of " + this.length + " and " + other.length
+                    + " letters");
+        }
+        final int[] allowed = new int[this.length];
+        for (int i = 0; i < this.length; i++) {
+            allowed[i] = this.allowed[i] & other.allowed[i];
+        }
+        final int[] minCounts = new int[ALPHABET_SIZE + 1];
+        final int[] maxCounts = new int[ALPHABET_SIZE + 1];
+        boolean satisfiable = this.satisfiable && other.satisfiable;
+        for (int letter = 1; letter <= ALPHABET_SIZE; letter++) {
+            minCounts[letter] = Math.max(this.minCounts[letter], other.minCounts[letter]);
+            maxCounts[letter] = Math.min(this.maxCounts[letter], other.maxCounts[letter]);
+            satisfiable &= minCounts[letter] <= maxCounts[letter];
+        }
+        return new Constraint(allowed, minCounts, maxCounts, satisfiable);
+    }
+
+    /**
+     * @return whether any word can satisfy the constraint
+     */
+    public boolean isSatisfiable() {
+        return this.satisfiable;
+    }
+
+    /**
+     * @param packed a packed word
+     * @return whether the word satisfies the constraint
+     */
+    public boolean test(long packed) {
+        if (!this.satisfiable) {
+            return false;
+        }
+        int allowed = 1;
+        for (int i = 0; i < this.length; i++) {
+            allowed &= this.allowed[i] >>> Patterns.letter(packed, i);
+        }
+        if (allowed == 0) {
+            return false;
+        }
+        for (final int letter : this.countedLetters) {
+            final int count = Patterns.count(packed, letter);
+            if (count < this.minCounts[letter] || count > this.maxCounts[letter]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,347 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The complete game tree of the solver for a word list: starting from the opener, every state reachable by playing
+ * the top suggestion, down to the states with a single candidate. Each node holds the suggestions for its state, so a
+ * request whose guesses follow the tree is answered by walking it with the guess history, without filtering or
+ * scoring.
+ * <p>
+ * The binary format is a header (magic, version, word list fingerprint, node count) followed by the nodes in
+ * pre-order. A node is the word ID of its guess as an unsigned short, the number of its suggestions as an int, each
+ * suggestion's word ID and entropy in hundredths of a bit as unsigned shorts, then the number of its children as an
+ * unsigned byte and, for each child, the feedback that leads to it as an unsigned byte followed by the child node.
+ * Trees are therefore limited to word lists of at most {@value #MAX_WORDS} words of up to
+ * {@value Patterns#MAX_BYTE_WORD_LENGTH} letters.
+ */
+public final class DecisionTree {
+    private static final int MAGIC = 0x57534454;
+    private static final int VERSION = 1;
+    private static final int MAX_WORDS = 1 << 16;
+    private static final Logger logger = LoggerFactory.getLogger(DecisionTree.class);
+
+    private final WordList wordList;
+    private final Node root;
+    private final int size;
+
+    /**
+     * A state of the tree: the guess played, the suggestions for the state, and the states reached by each feedback
+     * to the guess, sorted by feedback.
+     */
+    private record Node(int guessId, List<Suggestion> suggestions, byte[] feedbacks, Node[] children) {
+
+        private Node child(int feedback) {
+            int low = 0;
+            int high = this.feedbacks.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final int value = this.feedbacks[mid] & 0xFF;
+                if (value < feedback) {
+                    low = mid + 1;
+                } else if (value > feedback) {
+                    high = mid - 1;
+                } else {
+                    return this.children[mid];
+                }
+            }
+            return null;
+        }
+    }
+
+    private DecisionTree(WordList wordList, Node root, int size) {
+        this.wordList = wordList;
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Create a tree with no nodes, which answers no lookups.
+     *
+     * @param wordList the word list
+     * @return the empty tree
+     */
+    public static DecisionTree empty(WordList wordList) {
+        return new DecisionTree(wordList, null, 0);
+    }
+
+    /**
+     * Compute the tree for a word list. Branches are built in parallel on the pool.
+     *
+     * @param wordList the word list
+     * @param opener   the first guess, or null to open with the top suggestion
+     * @param pool     the pool to build on
+     * @return the tree
+     * @throws IllegalArgumentException if the opener is not in the word list, or the word list is too large or its
+     *                                  words too long for the tree format
+     */
+    public static DecisionTree build(WordList wordList, String opener, ForkJoinPool pool) {
+        if (!DecisionTree.supports(wordList)) {
+            throw new IllegalArgumentException("Decision trees support at most " + MAX_WORDS + " words of up to "
+                    + Patterns.MAX_BYTE_WORD_LENGTH + " letters");
+        }
+        final SolverState initial = SolverState.initial(wordList);
+        if (initial.possibleWords().isEmpty()) {
+            return DecisionTree.empty(wordList);
+        }
+        final List<Suggestion> firstTurn = List.copyOf(new EntropyScorer(pool).score(initial));
+        final int openerId = opener == null
+                ? wordList.id(firstTurn.get(0).word())
+                : wordList.id(opener.trim().toUpperCase());
+        if (openerId < 0) {
+            throw new IllegalArgumentException("Opener is not in the word list: '" + opener + '\'');
+        }
+
+        final Node root = pool.invoke(new BuildTask(initial, firstTurn, openerId));
+        return new DecisionTree(wordList, root, DecisionTree.count(root));
+    }
+
+    /**
+     * Builds the subtree of a state, forking one task per feedback to its guess.
+     */
+    private static final class BuildTask extends RecursiveTask<Node> {
+        private final SolverState state;
+        private final List<Suggestion> suggestions;
+        private final int guessId;
+
+        private BuildTask(SolverState state, List<Suggestion> suggestions, int guessId) {
+            this.state = state;
+            this.suggestions = suggestions;
+            this.guessId = guessId;
+        }
+
+        private BuildTask(SolverState state) {
+            this(state, null, -1);
+        }
+
+        @Override
+        protected Node compute() {
+            final List<Suggestion> suggestions = this.suggestions != null
+                    ? this.suggestions
+                    : List.copyOf(new EntropyScorer().score(this.state));
+            final WordList wordList = this.state.wordList();
+            final FeedbackMatrix matrix = wordList.feedback();
+            final int guessId = this.guessId >= 0 ? this.guessId : wordList.id(suggestions.get(0).word());
+
+            final SortedMap<Integer, int[]> partitions = new TreeMap<>();
+            final int[] counts = new int[matrix.patternCount()];
+            final int[] candidates = this.state.possibleWords().toArray();
+            for (final int answerId : candidates) {
+                counts[matrix.pattern(guessId, answerId)]++;
+            }
+            final int[] filled = new int[matrix.patternCount()];
+            final int allGreen = Patterns.allGreen(matrix.wordLength());
+            for (final int answerId : candidates) {
+                final int pattern = matrix.pattern(guessId, answerId);
+                if (pattern != allGreen) {
+                    partitions.computeIfAbsent(pattern, p -> new int[counts[p]])[filled[pattern]++] = answerId;
+                }
+            }
+
+            final List<BuildTask> tasks = new ArrayList<>(partitions.size());
+            for (final int[] partition : partitions.values()) {
+                final CandidateSet subset = CandidateSet.of(wordList.size(), partition, 0, partition.length);
+                tasks.add(new BuildTask(SolverState.of(wordList, subset)));
+            }
+            RecursiveTask.invokeAll(tasks);
+
+            final byte[] feedbacks = new byte[partitions.size()];
+            final Node[] children = new Node[partitions.size()];
+            int i = 0;
+            for (final int feedback : partitions.keySet()) {
+                feedbacks[i] = (byte) feedback;
+                children[i] = tasks.get(i).join();
+                i++;
+            }
+            return new Node(guessId, suggestions, feedbacks, children);
+        }
+    }
+
+    /**
+     * Load a tree file. A missing file, or one built for another word list, results in an empty tree.
+     *
+     * @param file     the tree file
+     * @param wordList the word list
+     * @return the tree
+     */
+    public static DecisionTree load(Path file, WordList wordList) {
+        final long start = System.nanoTime();
+        try (final InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            final DecisionTree tree = DecisionTree.read(in, wordList);
+            logger.info("Loaded decision tree with {} states from {} in {} ms",
+                    tree.size(), file, (System.nanoTime() - start) / 1_000_000);
+            return tree;
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Ignoring decision tree {}: {}", file, e.getMessage());
+            return DecisionTree.empty(wordList);
+        }
+    }
+
+    /**
+     * Read a tree written by {@link #write(OutputStream)}.
+     *
+     * @param in       the stream to read from
+     * @param wordList the word list the tree must have been built for
+     * @return the tree
+     * @throws IOException           if the stream cannot be read
+     * @throws IllegalStateException if the stream is not a tree for the word list
+     */
+    public static DecisionTree read(InputStream in, WordList wordList) throws IOException {
+        final DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IllegalStateException("Unsupported decision tree format");
+        }
+        if (data.readLong() != wordList.fingerprint() || !DecisionTree.supports(wordList)) {
+            throw new IllegalStateException("Decision tree was built for a different word list");
+        }
+        final int size = data.readInt();
+        if (size == 0) {
+            return DecisionTree.empty(wordList);
+        }
+        final Node root = DecisionTree.readNode(data, wordList, CandidateSet.all(wordList.size()));
+        if (DecisionTree.count(root) != size) {
+            throw new IllegalStateException("Decision tree is corrupt");
+        }
+        return new DecisionTree(wordList, root, size);
+    }
+
+    /**
+     * @return whether word IDs fit an unsigned short and feedback patterns an unsigned byte
+     */
+    private static boolean supports(WordList wordList) {
+        return wordList.size() <= MAX_WORDS && wordList.length() <= Patterns.MAX_BYTE_WORD_LENGTH;
+    }
+
+    private static Node readNode(DataInputStream data, WordList wordList, CandidateSet candidates) throws IOException {
+        final int guessId = data.readUnsignedShort();
+        final int count = data.readInt();
+        if (guessId >= wordList.size() || count <= 0) {
+            throw new IllegalStateException("Decision tree is corrupt");
+        }
+        final List<Suggestion> suggestions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final int id = data.readUnsignedShort();
+            final double entropy = data.readUnsignedShort() / 100.0;
+            suggestions.add(new Suggestion(wordList.word(id), entropy, candidates.contains(id)));
+        }
+
+        final FeedbackMatrix matrix = wordList.feedback();
+        final int childCount = data.readUnsignedByte();
+        final byte[] feedbacks = new byte[childCount];
+        final Node[] children = new Node[childCount];
+        for (int i = 0; i < childCount; i++) {
+            final int feedback = data.readUnsignedByte();
+            feedbacks[i] = (byte) feedback;
+            children[i] = DecisionTree.readNode(data, wordList,
+                    candidates.retain(answerId -> matrix.pattern(guessId, answerId) == feedback));
+        }
+        return new Node(guessId, List.copyOf(suggestions), feedbacks, children);
+    }
+
+    /**
+     * Write the tree in its binary format.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(OutputStream out) throws IOException {
+        final DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(this.wordList.fingerprint());
+        data.writeInt(this.size);
+        if (this.root != null) {
+            this.writeNode(data, this.root);
+        }
+        data.flush();
+    }
+
+    private void writeNode(DataOutputStream data, Node node) throws IOException {
+        data.writeShort(node.guessId());
+        data.writeInt(node.suggestions().size());
+        for (final Suggestion suggestion : node.suggestions()) {
+            data.writeShort(this.wordList.id(suggestion.word()));
+            data.writeShort((int) Math.round(suggestion.entropy() * 100));
+        }
+        data.writeByte(node.children().length);
+        for (int i = 0; i < node.children().length; i++) {
+            data.writeByte(node.feedbacks()[i]);
+            this.writeNode(data, node.children()[i]);
+        }
+    }
+
+    /**
+     * Walk the tree with a guess history.
+     *
+     * @param guesses the guesses made so far, in order
+     * @return the suggestions for the state the guesses lead to, or empty if a guess is not the one the tree plays
+     * or its feedback leads off the tree
+     */
+    public Optional<List<Suggestion>> lookup(List<Guess> guesses) {
+        Node node = this.root;
+        for (final Guess guess : guesses) {
+            if (node == null || !this.wordList.word(node.guessId()).equals(guess.word())) {
+                return Optional.empty();
+            }
+            node = node.child(Patterns.encode(guess.feedback()));
+        }
+        return node == null ? Optional.empty() : Optional.of(node.suggestions());
+    }
+
+    /**
+     * @return the number of states in the tree
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the guess played first, or null if the tree is empty
+     */
+    public String opener() {
+        return this.root == null ? null : this.wordList.word(this.root.guessId());
+    }
+
+    private static int count(Node node) {
+        int count = 1;
+        for (final Node child : node.children()) {
+            count += DecisionTree.count(child);
+        }
+        return count;
+    }
+
+    /**
+     * Build the decision tree for the default word list and write it to the file given as the first argument. An
+     * opener can be given as the second argument.
+     *
+     * @param args the output file, and optionally the opener
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            throw new IllegalArgumentException("Usage: DecisionTree <output file> [opener]");
+        }
+        final long start = System.nanoTime();
+        final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            final DecisionTree tree = DecisionTree.build(WordList.getDefault(), args.length > 1 ? args[1] : null, pool);
+            final Path file = Path.of(args[0]);
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                tree.write(out);
+            }
+            logger.info("Wrote decision tree with {} states opening with {} to {} ({} bytes) in {} ms",
+                    tree.size(), tree.opener(), file, Files.size(file), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * The dictionaries served by the API, selected by name per request. The {@value #DEFAULT} dictionary is the served
+ * word list, with every word an answer. Other dictionaries are loaded from the subdirectories of
+ * {@code solver.dictionaries.directory} (see {@link Dictionary#load(Path)}).
+ * <p>
+ * Dictionaries are loaded on a background thread at startup, on {@link #reload()} and every
+ * {@code solver.dictionaries.reload-interval} when that is positive. The feedback matrix of a new or changed
+ * dictionary is built before the dictionary is served, and all dictionaries are then swapped in at once. Until then,
+ * requests keep using the previous dictionaries; a dictionary whose files fail to load keeps its previous version.
+ * A {@link DictionaryReplacedEvent} is published for every dictionary the swap replaces or removes.
+ */
+@Component
+public class Dictionaries implements DisposableBean {
+    public static final String DEFAULT = "default";
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final Logger logger = LoggerFactory.getLogger(Dictionaries.class);
+
+    private final Dictionary defaultDictionary;
+    private final Path directory;
+    private final ScheduledExecutorService loader;
+    private final AtomicReference<Map<String, Dictionary>> dictionaries;
+    private final ApplicationEventPublisher events;
+
+    public Dictionaries(SolverConfig solverConfig, WordList wordList, ApplicationEventPublisher events) {
+        final SolverConfig.Dictionaries config = solverConfig.getDictionaries();
+        this.events = events;
+        this.defaultDictionary = Dictionary.of(DEFAULT, wordList);
+        this.dictionaries = new AtomicReference<>(Map.of(DEFAULT, this.defaultDictionary));
+        this.directory = config.getDirectory() == null || config.getDirectory().isBlank()
+                ? null
+                : Path.of(config.getDirectory());
+        this.loader = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "dictionary-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        if (this.directory != null) {
+            final Duration interval = config.getReloadInterval();
+            if (interval != null && !interval.isZero() && !interval.isNegative()) {
+                this.loader.scheduleWithFixedDelay(this::load, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+            } else {
+                this.loader.execute(this::load);
+            }
+        }
+    }
+
+    /**
+     * @return the {@value #DEFAULT} dictionary
+     */
+    public Dictionary getDefault() {
+        return this.defaultDictionary;
+    }
+
+    /**
+     * @param name the name of a dictionary, or null for the {@value #DEFAULT} dictionary
+     * @return the dictionary
+     * @throws IllegalArgumentException if there is no dictionary with the name
+     */
+    public Dictionary get(String name) {
+        if (name == null || name.isBlank()) {
+            return this.defaultDictionary;
+        }
+        final Map<String, Dictionary> current = this.dictionaries.get();
+        final Dictionary dictionary = current.get(name);
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Unknown dictionary '" + name + "'; expected one of "
+                    + new TreeSet<>(current.keySet()));
+        }
+        return dictionary;
+    }
+
+    /**
+     * @return the dictionaries being served, by name
+     */
+    public SortedMap<String, Dictionary> getAll() {
+        return new TreeMap<>(this.dictionaries.get());
+    }
+
+    /**
+     * Reload the dictionaries from {@code solver.dictionaries.directory} in the background.
+     *
+     * @return the names of the dictionaries served once the reload is done
+     */
+    public CompletableFuture<SortedSet<String>> reload() {
+        if (this.directory == null) {
+            return CompletableFuture.completedFuture(new TreeSet<>(this.dictionaries.get().keySet()));
+        }
+        return CompletableFuture.supplyAsync(this::load, this.loader);
+    }
+
+    /**
+     * Load the dictionary directory and swap in the result. Only runs on the loader thread, so loads never overlap.
+     */
+    private SortedSet<String> load() {
+        final Map<String, Dictionary> current = this.dictionaries.get();
+        final Map<String, Dictionary> loaded = new HashMap<>();
+        loaded.put(DEFAULT, this.defaultDictionary);
+        try (final DirectoryStream<Path> entries = Files.newDirectoryStream(this.directory, Files::isDirectory)) {
+            for (final Path entry : entries) {
+                final String name = entry.getFileName().toString();
+                if (!Files.exists(entry.resolve(Dictionary.ANSWERS_FILE))) {
+                    continue;
+                }
+                if (name.equals(DEFAULT) || !NAME.matcher(name).matches()) {
+                    logger.warn("Ignoring dictionary {}: the name is reserved or invalid", entry);
+                    continue;
+                }
+                final Dictionary existing = current.get(name);
+                try {
+                    loaded.put(name, this.prepare(Dictionary.load(entry), existing));
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Could not load dictionary {}: {}", entry, e.getMessage());
+                    if (existing != null) {
+                        loaded.put(name, existing);
+                    }
+                }
+            }
+            this.dictionaries.set(Map.copyOf(loaded));
+            for (final Dictionary replaced : current.values()) {
+                if (loaded.get(replaced.name()) != replaced) {
+                    this.events.publishEvent(new DictionaryReplacedEvent(replaced));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read dictionary directory {}: {}", this.directory, e.getMessage());
+        }
+        return new TreeSet<>(this.dictionaries.get().keySet());
+    }
+
+    /**
+     * Keep the served version of an unchanged dictionary, so that its states stay equal to those of running games
+     * and cached suggestions, or build the feedback matrix of a new one.
+     */
+    private Dictionary prepare(Dictionary dictionary, Dictionary existing) {
+        if (existing != null && existing.hasSameWords(dictionary)) {
+            return existing;
+        }
+        final long start = System.nanoTime();
+        dictionary.wordList().feedback();
+        logger.info("Loaded dictionary {} with {} answers and {} guesses in {} ms", dictionary.name(),
+                dictionary.answers().cardinality(), dictionary.wordList().size(),
+                (System.nanoTime() - start) / 1_000_000);
+        return dictionary;
+    }
+
+    @Override
+    public void destroy() {
+        this.loader.shutdownNow();
+    }
+}
@@ -0,0 +1,163 @@
+package net.noisynarwhal.wordlesolver;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A named dictionary: the words that can be guessed, and the subset of them that can be answers. Guesses are the word
+ * list the solver scores; games start with the answers as their possible words. A dictionary is immutable, so a game
+ * keeps the dictionary it started with when the dictionaries are reloaded.
+ */
+public final class Dictionary {
+    public static final String ANSWERS_FILE = "answers.txt";
+    public static final String GUESSES_FILE = "guesses.txt";
+    public static final String PROPERTIES_FILE = "dictionary.properties";
+
+    private final String name;
+    private final WordList wordList;
+    private final CandidateSet answers;
+
+    private Dictionary(String name, WordList wordList, CandidateSet answers) {
+        this.name = name;
+        this.wordList = wordList;
+        this.answers = answers;
+    }
+
+    /**
+     * Create a dictionary in which every word of the list is a possible answer.
+     *
+     * @param name     the name of the dictionary
+     * @param wordList the words
+     * @return the dictionary
+     */
+    public static Dictionary of(String name, WordList wordList) {
+        return new Dictionary(name, wordList, CandidateSet.all(wordList.size()));
+    }
+
+    /**
+     * Create a dictionary of {@value Patterns#DEFAULT_WORD_LENGTH}-letter words from its answers and the other words
+     * that can be guessed. Answers can always be guessed, so they need not be repeated in the guesses. Words are
+     * trimmed and upper cased; invalid words are logged and skipped.
+     *
+     * @param name    the name of the dictionary
+     * @param answers the possible answers
+     * @param guesses the other words that can be guessed
+     * @return the dictionary
+     * @throws IllegalArgumentException if there are no valid answers
+     */
+    public static Dictionary of(String name, Iterable<String> answers, Iterable<String> guesses) {
+        return Dictionary.of(name, answers, guesses, Patterns.DEFAULT_WORD_LENGTH, Alphabet.latin());
+    }
+
+    /**
+     * Create a dictionary of words of the given length and alphabet, as {@link #of(String, Iterable, Iterable)}.
+     *
+     * @param name     the name of the dictionary
+     * @param answers  the possible answers
+     * @param guesses  the other words that can be guessed
+     * @param length   the length of the words
+     * @param alphabet the letters of the words
+     * @return the dictionary
+     * @throws IllegalArgumentException if the length is not supported or there are no valid answers
+     */
+    public static Dictionary of(String name, Iterable<String> answers, Iterable<String> guesses, int length,
+                                Alphabet alphabet) {
+        final WordList answerList = WordList.of(answers, length, alphabet);
+        if (answerList.size() == 0) {
+            throw new IllegalArgumentException("Dictionary '" + name + "' has no answers");
+        }
+        final List<String> words = new ArrayList<>(answerList.words());
+        guesses.forEach(words::add);
+        final WordList wordList = WordList.of(words, length, alphabet);
+
+        final int[] ids = new int[answerList.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = wordList.id(answerList.word(i));
+        }
+        return new Dictionary(name, wordList, CandidateSet.of(wordList.size(), ids, 0, ids.length));
+    }
+
+    /**
+     * Load a dictionary from a directory holding {@value #ANSWERS_FILE} and, optionally, {@value #GUESSES_FILE}, one
+     * word per line. The dictionary is named after the directory. An optional {@value #PROPERTIES_FILE} sets the
+     * {@code length} of the words, {@value Patterns#DEFAULT_WORD_LENGTH} by default, and the letters of their
+     * {@code alphabet}, A to Z by default.
+     *
+     * @param directory the directory
+     * @return the dictionary
+     * @throws IOException              if a file cannot be read
+     * @throws IllegalArgumentException if a property is invalid or there are no valid answers
+     */
+    public static Dictionary load(Path directory) throws IOException {
+        final Path guessesFile = directory.resolve(GUESSES_FILE);
+        final Path propertiesFile = directory.resolve(PROPERTIES_FILE);
+        final Properties properties = new Properties();
+        if (Files.exists(propertiesFile)) {
+            try (final Reader reader = Files.newBufferedReader(propertiesFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+        final String length = properties.getProperty("length");
+        final String alphabet = properties.getProperty("alphabet");
+        return Dictionary.of(directory.getFileName().toString(),
+                Dictionary.readWords(directory.resolve(ANSWERS_FILE)),
+                Files.exists(guessesFile) ? Dictionary.readWords(guessesFile) : List.of(),
+                length == null ? Patterns.DEFAULT_WORD_LENGTH : Integer.parseInt(length.trim()),
+                alphabet == null ? Alphabet.latin() : Alphabet.of(alphabet.trim().toUpperCase()));
+    }
+
+    private static List<String> readWords(Path file) throws IOException {
+        return Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isBlank())
+                .toList();
+    }
+
+    /**
+     * @return the name of the dictionary
+     */
+    public String name() {
+        return this.name;
+    }
+
+    /**
+     * @return the words that can be guessed, answers included
+     */
+    public WordList wordList() {
+        return this.wordList;
+    }
+
+    /**
+     * @return the words that can be answers, drawn from the word list
+     */
+    public CandidateSet answers() {
+        return this.answers;
+    }
+
+    /**
+     * @return the state before any guess, where every answer is possible
+     */
+    public SolverState initialState() {
+        return SolverState.of(this.wordList, this.answers);
+    }
+
+    /**
+     * @param other another dictionary
+     * @return whether the other dictionary has the same guesses, answers and alphabet
+     */
+    public boolean hasSameWords(Dictionary other) {
+        return this.wordList.fingerprint() == other.wordList.fingerprint() && this.answers.equals(other.answers)
+                && this.wordList.alphabet().equals(other.wordList.alphabet());
+    }
+
+    @Override
+    public String toString() {
+        return "Dictionary{name=" + this.name + ", answers=" + this.answers.cardinality()
+                + ", guesses=" + this.wordList.size() + ", length=" + this.wordList.length() + '}';
+    }
+}
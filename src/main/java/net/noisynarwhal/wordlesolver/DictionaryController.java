@@ -0,0 +1,46 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("${api.base-path}/dictionaries")
+public class DictionaryController {
+    private final Dictionaries dictionaries;
+
+    @Autowired
+    public DictionaryController(Dictionaries dictionaries) {
+        this.dictionaries = dictionaries;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<Map<String, Object>> list() {
+        return this.dictionaries.getAll().values().stream()
+                .map(dictionary -> Map.<String, Object>of(
+                        "name", dictionary.name(),
+                        "answers", dictionary.answers().cardinality(),
+                        "guesses", dictionary.wordList().size(),
+                        "length", dictionary.wordList().length(),
+                        "alphabet", dictionary.wordList().alphabet().letters()
+                ))
+                .toList();
+    }
+
+    /**
+     * Reload the dictionaries in the background. They are swapped in once every new or changed dictionary is built.
+     */
+    @PostMapping(path = "/reload", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Map<String, Object> reload() {
+        this.dictionaries.reload();
+        return Map.of(
+                "status", "reloading",
+                "timestamp", System.currentTimeMillis()
+        );
+    }
+}
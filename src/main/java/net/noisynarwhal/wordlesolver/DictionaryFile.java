@@ -0,0 +1,170 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A versioned binary file holding a word list and its feedback matrix, so that a service can start without reading
+ * {@code words.txt} or computing the matrix. The pattern region is opened with {@link FileChannel#map}, so startup
+ * only reads the header and words, and every JVM on a host shares the same pages of the page cache.
+ * <p>
+ * The file is big-endian and laid out as:
+ * <ul>
+ *     <li>header: magic, format version, word length and word count as ints, then the word list fingerprint as a
+ *     long</li>
+ *     <li>words: the packed ASCII letters of each word, in ID order</li>
+ *     <li>distinct pattern counts: one unsigned value per word</li>
+ *     <li>patterns: one unsigned value per guess and answer, row by guess ID</li>
+ * </ul>
+ * Counts and patterns are single bytes for words of up to {@value Patterns#MAX_BYTE_WORD_LENGTH} letters and two
+ * bytes for longer words. Only word lists of the {@link Alphabet#latin() Latin alphabet} can be written.
+ */
+public final class DictionaryFile {
+    private static final int MAGIC = 0x57534458;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 * Integer.BYTES + Long.BYTES;
+    private static final Logger logger = LoggerFactory.getLogger(DictionaryFile.class);
+
+    private DictionaryFile() {
+        // Prevent instantiation
+    }
+
+    /**
+     * Write a word list and its feedback matrix. The file is written next to its destination and then moved into
+     * place, so readers never see a partial file.
+     *
+     * @param wordList the word list
+     * @param file     the file to write
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the word list is not of the Latin alphabet
+     */
+    public static void write(WordList wordList, Path file) throws IOException {
+        if (!wordList.alphabet().equals(Alphabet.latin())) {
+            throw new IllegalArgumentException("Only word lists of the Latin alphabet can be written");
+        }
+        final int size = wordList.size();
+        final int length = wordList.length();
+        final int patternBytes = FeedbackMatrix.patternBytes(length);
+        final FeedbackMatrix matrix = wordList.feedback();
+
+        final ByteBuffer head = ByteBuffer.allocate(HEADER_SIZE + size * (length + patternBytes));
+        head.putInt(MAGIC).putInt(VERSION).putInt(length).putInt(size).putLong(wordList.fingerprint());
+        for (int id = 0; id < size; id++) {
+            head.put(wordList.word(id).getBytes(StandardCharsets.US_ASCII));
+        }
+        for (int id = 0; id < size; id++) {
+            if (patternBytes == 1) {
+                head.put((byte) matrix.distinctPatterns(id));
+            } else {
+                head.putShort((short) matrix.distinctPatterns(id));
+            }
+        }
+        head.flip();
+
+        final Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        final Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try (final FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            final ByteBuffer patterns = matrix.patterns();
+            while (head.hasRemaining() || patterns.hasRemaining()) {
+                channel.write(new ByteBuffer[]{head, patterns});
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Open a file written by {@link #write(WordList, Path)}. The patterns are memory-mapped rather than read.
+     *
+     * @param file the file to open
+     * @return the word list, with its feedback matrix
+     * @throws IOException           if the file cannot be read
+     * @throws IllegalStateException if the file is not a valid dictionary file
+     */
+    public static WordList open(Path file) throws IOException {
+        final long start = System.nanoTime();
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer header = DictionaryFile.read(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IllegalStateException("Not a dictionary file: " + file);
+            }
+            final int version = header.getInt();
+            if (version != VERSION) {
+                throw new IllegalStateException("Unsupported dictionary file version " + version + ": " + file);
+            }
+            final int wordLength = header.getInt();
+            final int size = header.getInt();
+            final long fingerprint = header.getLong();
+            if (wordLength < 1 || wordLength > Patterns.MAX_WORD_LENGTH || size < 0
+                    || size > (FeedbackMatrix.patternBytes(wordLength) == 1
+                    ? FeedbackMatrix.MAX_WORDS : FeedbackMatrix.MAX_WIDE_WORDS)) {
+                throw new IllegalStateException("Unsupported dictionary of " + size + " words of length " + wordLength);
+            }
+            final int patternBytes = FeedbackMatrix.patternBytes(wordLength);
+            final long patternOffset = HEADER_SIZE + (long) size * (wordLength + patternBytes);
+            final long patternSize = (long) size * size * patternBytes;
+            if (channel.size() != patternOffset + patternSize) {
+                throw new IllegalStateException("Dictionary file is truncated or corrupt: " + file);
+            }
+
+            final ByteBuffer body = DictionaryFile.read(channel, HEADER_SIZE, size * (wordLength + patternBytes));
+            final String[] words = new String[size];
+            final byte[] letters = new byte[wordLength];
+            for (int id = 0; id < size; id++) {
+                body.get(letters);
+                words[id] = new String(letters, StandardCharsets.US_ASCII);
+            }
+            final int[] distinctPatterns = new int[size];
+            for (int id = 0; id < size; id++) {
+                distinctPatterns[id] = patternBytes == 1 ? body.get() & 0xFF : body.getShort() & 0xFFFF;
+            }
+
+            final ByteBuffer patterns = channel.map(FileChannel.MapMode.READ_ONLY, patternOffset, patternSize);
+            final WordList wordList = WordList.of(words,
+                    FeedbackMatrix.of(size, wordLength, patterns, distinctPatterns));
+            if (wordList.fingerprint() != fingerprint) {
+                throw new IllegalStateException("Dictionary file fingerprint does not match its words: " + file);
+            }
+            logger.info("Mapped dictionary of {} words from {} in {} ms",
+                    size, file, (System.nanoTime() - start) / 1_000_000);
+            return wordList;
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IllegalStateException("Dictionary file is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Write the dictionary file for the default word list to the file given as the only argument.
+     *
+     * @param args the output file
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: DictionaryFile <output file>");
+        }
+        final Path file = Path.of(args[0]);
+        DictionaryFile.write(WordList.getDefault(), file);
+        logger.info("Wrote dictionary file {} ({} bytes)", file, Files.size(file));
+    }
+}
@@ -0,0 +1,11 @@
+package net.noisynarwhal.wordlesolver;
+
+/**
+ * Published by {@link Dictionaries} once a reload has stopped serving a dictionary, because its files changed or were
+ * removed. Caches drop the states of its word list, so the replaced version is only kept reachable by the games still
+ * playing it.
+ *
+ * @param dictionary the dictionary no longer served
+ */
+public record DictionaryReplacedEvent(Dictionary dictionary) {
+}
@@ -0,0 +1,107 @@
+package net.noisynarwhal.wordlesolver;
+
+/**
+ * Calculates the entropy of guesses against a fixed set of possible answers. Patterns are read from the feedback
+ * matrix into a reusable histogram of one bucket per pattern (see {@link FeedbackMatrix#patternCount()}), and each
+ * bucket's contribution {@code -p * log2(p)} is read from a table indexed by the bucket count, so no allocation or
+ * logarithm happens per guess.
+ * <p>
+ * A kernel is not thread-safe; concurrent scorers each use their own kernel, sharing the candidates and term table.
+ */
+public final class EntropyKernel {
+    private static final double LOG2 = Math.log(2);
+    private final FeedbackMatrix matrix;
+    private final int[] candidates;
+    private final double[] terms;
+    private final int sparseLimit;
+    private final int[] histogram;
+
+    /**
+     * Create a kernel with its own term table.
+     *
+     * @param matrix     the feedback matrix
+     * @param candidates the IDs of the possible answers
+     */
+    public EntropyKernel(FeedbackMatrix matrix, int[] candidates) {
+        this(matrix, candidates, EntropyKernel.termTable(candidates.length));
+    }
+
+    /**
+     * Create a kernel sharing a term table built by {@link #termTable(int)} for {@code candidates.length}.
+     *
+     * @param matrix     the feedback matrix
+     * @param candidates the IDs of the possible answers
+     * @param terms      the term table
+     */
+    public EntropyKernel(FeedbackMatrix matrix, int[] candidates, double[] terms) {
+        this.matrix = matrix;
+        this.candidates = candidates;
+        this.terms = terms;
+        this.sparseLimit = matrix.patternCount() / 4;
+        this.histogram = new int[matrix.patternCount()];
+    }
+
+    /**
+     * Build the table of entropy terms for a candidate set of the given size: entry {@code n} holds
+     * {@code -p * log2(p)} for {@code p = n / total}.
+     *
+     * @param total the number of possible answers
+     * @return the term table, with {@code total + 1} entries
+     */
+    public static double[] termTable(int total) {
+        final double[] terms = new double[total + 1];
+        for (int n = 1; n <= total; n++) {
+            final double probability = (double) n / total;
+            terms[n] = -probability * (Math.log(probability) / EntropyKernel.LOG2);
+        }
+        return terms;
+    }
+
+    /**
+     * Calculate the entropy of guessing a word, rounded to 2 decimal places.
+     *
+     * @param guessId the ID of the word to guess
+     * @return the entropy of the guess
+     */
+    public double entropy(int guessId) {
+        return Math.round(this.exactEntropy(guessId) * 100) / 100.0;
+    }
+
+    /**
+     * Calculate the entropy of guessing a word without rounding, for summing over several sets of possible answers.
+     *
+     * @param guessId the ID of the word to guess
+     * @return the entropy of the guess
+     */
+    public double exactEntropy(int guessId) {
+        // Handle edge case where no possible words remain
+        if (this.candidates.length == 0) {
+            return 0.0;
+        }
+
+        // Count how many words would match each possible feedback pattern
+        final int[] histogram = this.histogram;
+        for (final int answerId : this.candidates) {
+            histogram[this.matrix.pattern(guessId, answerId)]++;
+        }
+
+        // Sum the terms of the non-empty buckets, clearing the histogram for the next guess. Small candidate sets
+        // touch few buckets, so they revisit their own patterns instead of sweeping every bucket.
+        double entropy = 0.0;
+        if (this.candidates.length < this.sparseLimit) {
+            for (final int answerId : this.candidates) {
+                final int pattern = this.matrix.pattern(guessId, answerId);
+                if (histogram[pattern] != 0) {
+                    entropy += this.terms[histogram[pattern]];
+                    histogram[pattern] = 0;
+                }
+            }
+        } else {
+            for (int pattern = 0; pattern < histogram.length; pattern++) {
+                entropy += this.terms[histogram[pattern]];
+                histogram[pattern] = 0;
+            }
+        }
+        return entropy;
+    }
+}
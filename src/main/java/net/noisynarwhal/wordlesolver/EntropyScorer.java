@@ -0,0 +1,343 @@
+package net.noisynarwhal.wordlesolver;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Ranks the guesses for a {@link SolverState} by the entropy of their feedback. The scorer keeps no state of its own,
+ * so one instance can score any number of states from any number of threads at once.
+ */
+public class EntropyScorer implements SuggestionStrategy {
+    public static final String NAME = "entropy";
+    public static final int MIN_SUGGESTIONS = 5;
+    private static final int TASKS_PER_THREAD = 4;
+    private final ForkJoinPool scoringPool;
+    private final IntConsumer wordsScored;
+
+    /**
+     * Create a scorer that scores suggestions on the calling thread.
+     */
+    public EntropyScorer() {
+        this(null);
+    }
+
+    /**
+     * Create a scorer that scores suggestions on the given pool.
+     *
+     * @param scoringPool the pool to score suggestions on, or null to score them on the calling thread
+     */
+    public EntropyScorer(ForkJoinPool scoringPool) {
+        this(scoringPool, words -> {
+        });
+    }
+
+    /**
+     * Create a scorer that scores suggestions on the given pool and reports how many words it scores.
+     *
+     * @param scoringPool the pool to score suggestions on, or null to score them on the calling thread
+     * @param wordsScored receives, for each scored state, the number of words whose entropy was computed
+     */
+    public EntropyScorer(ForkJoinPool scoringPool, IntConsumer wordsScored) {
+        this.scoringPool = scoringPool;
+        this.wordsScored = wordsScored;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Suggestion> suggest(SolverState state, Duration budget) {
+        return List.copyOf(this.score(state));
+    }
+
+    /**
+     * Generate the best suggestions for the next Wordle guess based on the current state of possible words.
+     * The method considers both entropy and whether a word is a possible answer to prioritize suggestions.
+     * <p>
+     * The process follows these steps:
+     * 1. If no possible words remain, an empty set is returned.
+     * 2. The entropy of every possible answer is calculated, since all of them are part of the result.
+     * 3. The other words that may be guessed (every word, or in hard mode those that use every hint) are scored
+     *    to find the top `MIN_SUGGESTIONS` overall, keeping
+     *    only a bounded heap. A word's entropy cannot exceed log2 of the number of distinct patterns it can produce,
+     *    so words whose bound is below the current K-th best are skipped without building their histogram.
+     *    When the scorer has a pool, both passes are split into ranges that are scored concurrently.
+     * 4. If the top suggestion (i.e., the word with the highest entropy) is a possible answer,
+     *    only the possible answers are returned.
+     * 5. If the top suggestion is not a possible answer, the top `MIN_SUGGESTIONS` are returned
+     *    along with all possible answers.
+     * <p>
+     * This approach helps balance between finding an optimal guess and providing enough variety in suggestions.
+     * The result is the same as ranking every word with {@link Suggestion#compareTo} and filtering the full ranking.
+     *
+     * @param state the state to score
+     * @return a sorted set of suggestions, ordered by descending entropy
+     */
+    public SortedSet<Suggestion> score(SolverState state) {
+        return this.score(List.of(state));
+    }
+
+    /**
+     * Generate the best suggestions for one guess played on several boards at once, as in Dordle or Quordle. The
+     * boards share a word list and each keeps its own possible answers. Every guess is scored against all boards in
+     * the same pass, and its entropy is the sum of its entropies on each board, which is the entropy of the combined
+     * feedback since the answers of the boards are independent. A word is a possible answer if it is one on any
+     * board. The steps are those of {@link #score(SolverState)}, which scores a single board.
+     * <p>
+     * Boards that are already solved should not be passed; boards with no possible word left add nothing.
+     *
+     * @param boards the states of the boards to score, at least one
+     * @return a sorted set of suggestions, ordered by descending entropy
+     * @throws IllegalArgumentException if the boards do not share a word list
+     */
+    public SortedSet<Suggestion> score(List<SolverState> boards) {
+        final WordList wordList = boards.get(0).wordList();
+        CandidateSet possibleWords = boards.get(0).possibleWords();
+        CandidateSet guesses = wordList.allWords();
+        final List<int[]> active = new ArrayList<>(boards.size());
+        for (final SolverState board : boards) {
+            if (board.wordList() != wordList) {
+                throw new IllegalArgumentException("Boards must share a word list");
+            }
+            possibleWords = possibleWords.or(board.possibleWords());
+            guesses = guesses.and(board.guesses());
+            if (!board.possibleWords().isEmpty()) {
+                active.add(board.possibleWords().toArray());
+            }
+        }
+
+        // Return an empty set if no possible words remain
+        if (possibleWords.isEmpty()) {
+            return Collections.emptySortedSet();
+        }
+
+        final int[][] candidates = active.toArray(new int[0][]);
+        final double[][] terms = new double[candidates.length][];
+        for (int board = 0; board < candidates.length; board++) {
+            terms[board] = EntropyKernel.termTable(candidates[board].length);
+        }
+
+        // Score every possible answer
+        final int[] answerIds = possibleWords.toArray();
+        final List<Suggestion> answers = new ArrayList<>(answerIds.length);
+        for (final List<Suggestion> partial : this.inRanges(answerIds.length,
+                (from, to) -> EntropyScorer.scoreAnswers(wordList, from, to, answerIds, candidates, terms))) {
+            answers.addAll(partial);
+        }
+
+        // Score the remaining words against the best answers, keeping the top MIN_SUGGESTIONS overall
+        final List<Suggestion> seed = EntropyScorer.topK(answers);
+        final double[] bounds = EntropyScorer.entropyBounds(candidates, wordList.feedback().patternCount());
+        final int[] others = guesses.andNot(possibleWords).toArray();
+        final List<Suggestion> contenders = new ArrayList<>(seed);
+        final AtomicInteger othersScored = new AtomicInteger();
+        for (final List<Suggestion> partial : this.inRanges(others.length,
+                (from, to) -> EntropyScorer.scoreOthers(wordList, from, to, others, candidates, terms, seed, bounds,
+                        othersScored))) {
+            contenders.addAll(partial);
+        }
+        this.wordsScored.accept(answerIds.length + othersScored.get());
+        final List<Suggestion> top = EntropyScorer.topK(contenders);
+
+        // Create a sorted set to store suggestions
+        final SortedSet<Suggestion> bestSuggestions = new TreeSet<>(answers);
+
+        // Check the top suggestion to determine filtering behavior: if it is not a possible answer, add the top
+        // MIN_SUGGESTIONS for information gain to the possible answers
+        if (!top.get(0).isPossibleAnswer()) {
+            bestSuggestions.addAll(top);
+        }
+
+        // Return the sorted set of best suggestions
+        return bestSuggestions;
+    }
+
+    /**
+     * Scores a range of indexes into an array.
+     */
+    @FunctionalInterface
+    private interface RangeScorer<T> {
+        T score(int from, int to);
+    }
+
+    /**
+     * Split the indexes from 0 to 'size' into ranges and score them, concurrently when the scorer has a pool.
+     *
+     * @param size   the number of indexes
+     * @param scorer the scorer for one range
+     * @return the results for each range, in order
+     */
+    private <T> List<T> inRanges(int size, RangeScorer<T> scorer) {
+        if (this.scoringPool == null || size == 0) {
+            return List.of(scorer.score(0, size));
+        }
+        final int tasks = Math.min(size, this.scoringPool.getParallelism() * TASKS_PER_THREAD);
+        final List<ForkJoinTask<T>> partials = new ArrayList<>(tasks);
+        for (int task = 0; task < tasks; task++) {
+            final int from = (int) ((long) size * task / tasks);
+            final int to = (int) ((long) size * (task + 1) / tasks);
+            partials.add(this.scoringPool.submit(() -> scorer.score(from, to)));
+        }
+        final List<T> results = new ArrayList<>(tasks);
+        for (final ForkJoinTask<T> partial : partials) {
+            results.add(partial.join());
+        }
+        return results;
+    }
+
+    /**
+     * Score the possible answers answerIds[from] to answerIds[to - 1]. The range gets its own entropy kernels, so
+     * ranges can be scored concurrently.
+     *
+     * @param wordList   the word list
+     * @param from       the index of the first answer to score
+     * @param to         the index after the last answer to score
+     * @param answerIds  the IDs of the possible answers of any board
+     * @param candidates the IDs of the possible answers of each board
+     * @param terms      the entropy term table of each board
+     * @return the suggestions for the range
+     */
+    private static List<Suggestion> scoreAnswers(WordList wordList, int from, int to, int[] answerIds,
+                                                 int[][] candidates, double[][] terms) {
+        final List<Suggestion> suggestions = new ArrayList<>(to - from);
+        final EntropyKernel[] kernels = EntropyScorer.kernels(wordList.feedback(), candidates, terms);
+        for (int i = from; i < to; i++) {
+            final int guessId = answerIds[i];
+            suggestions.add(new Suggestion(wordList.word(guessId), EntropyScorer.entropy(kernels, guessId), true));
+        }
+        return suggestions;
+    }
+
+    /**
+     * Find the words others[from] to others[to - 1] that rank among the top MIN_SUGGESTIONS together with 'seed'.
+     *
+     * @param wordList   the word list
+     * @param from       the index of the first word to score
+     * @param to         the index after the last word to score
+     * @param others     the IDs of the words to score, none of them a possible answer
+     * @param candidates the IDs of the possible answers of each board
+     * @param terms      the entropy term table of each board
+     * @param seed       the best suggestions found so far
+     * @param bounds     the entropy bounds by number of distinct patterns
+     * @param scored     incremented by the number of words of the range whose entropy was computed
+     * @return the words of the range that rank among the top MIN_SUGGESTIONS
+     */
+    private static List<Suggestion> scoreOthers(WordList wordList, int from, int to, int[] others,
+                                                int[][] candidates, double[][] terms, List<Suggestion> seed,
+                                                double[] bounds, AtomicInteger scored) {
+        final FeedbackMatrix matrix = wordList.feedback();
+        final EntropyKernel[] kernels = EntropyScorer.kernels(matrix, candidates, terms);
+        final PriorityQueue<Suggestion> heap = new PriorityQueue<>(MIN_SUGGESTIONS + 1, Comparator.reverseOrder());
+        heap.addAll(seed);
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            final int guessId = others[i];
+            if (heap.size() == MIN_SUGGESTIONS && bounds[matrix.distinctPatterns(guessId)] < heap.peek().entropy()) {
+                continue;
+            }
+            heap.add(new Suggestion(wordList.word(guessId), EntropyScorer.entropy(kernels, guessId), false));
+            count++;
+            if (heap.size() > MIN_SUGGESTIONS) {
+                heap.poll();
+            }
+        }
+        scored.addAndGet(count);
+        heap.removeIf(Suggestion::isPossibleAnswer);
+        return new ArrayList<>(heap);
+    }
+
+    private static EntropyKernel[] kernels(FeedbackMatrix matrix, int[][] candidates, double[][] terms) {
+        final EntropyKernel[] kernels = new EntropyKernel[candidates.length];
+        for (int board = 0; board < candidates.length; board++) {
+            kernels[board] = new EntropyKernel(matrix, candidates[board], terms[board]);
+        }
+        return kernels;
+    }
+
+    /**
+     * @return the summed entropy of a guess over the kernels of every board, rounded once to 2 decimal places
+     */
+    private static double entropy(EntropyKernel[] kernels, int guessId) {
+        if (kernels.length == 1) {
+            return kernels[0].entropy(guessId);
+        }
+        double entropy = 0.0;
+        for (final EntropyKernel kernel : kernels) {
+            entropy += kernel.exactEntropy(guessId);
+        }
+        return Math.round(entropy * 100) / 100.0;
+    }
+
+    /**
+     * @param suggestions the suggestions to select from
+     * @return the best MIN_SUGGESTIONS suggestions, best first
+     */
+    private static List<Suggestion> topK(List<Suggestion> suggestions) {
+        final PriorityQueue<Suggestion> heap = new PriorityQueue<>(MIN_SUGGESTIONS + 1, Comparator.reverseOrder());
+        for (final Suggestion suggestion : suggestions) {
+            heap.add(suggestion);
+            if (heap.size() > MIN_SUGGESTIONS) {
+                heap.poll();
+            }
+        }
+        final List<Suggestion> top = new ArrayList<>(heap);
+        Collections.sort(top);
+        return top;
+    }
+
+    /**
+     * Build the table of upper bounds on the rounded entropy of a guess, indexed by the number of distinct patterns
+     * the guess can produce: with at most k outcomes over 'total' possible answers, the entropy cannot exceed
+     * log2(min(k, total)).
+     *
+     * @param total        the number of possible answers
+     * @param patternCount the number of patterns a guess can produce
+     * @return the bounds, indexed from 0 to {@code patternCount}
+     */
+    static double[] entropyBounds(int total, int patternCount) {
+        final double[] bounds = new double[patternCount + 1];
+        for (int k = 1; k < bounds.length; k++) {
+            // Allow for rounding error in the summed entropy terms
+            bounds[k] = Math.round((EntropyScorer.exactBound(k, total) + 1e-9) * 100) / 100.0;
+        }
+        return bounds;
+    }
+
+    /**
+     * @return the largest entropy, before rounding, of a guess with at most k outcomes over 'total' possible answers
+     */
+    private static double exactBound(int k, int total) {
+        return Math.log(Math.max(Math.min(k, total), 1)) / Math.log(2);
+    }
+
+    /**
+     * Build the table of upper bounds on the summed entropy of a guess over several boards, indexed by the number of
+     * distinct patterns the guess can produce: the sum of the bounds of each board, rounded once like the entropy.
+     *
+     * @param candidates   the IDs of the possible answers of each board
+     * @param patternCount the number of patterns a guess can produce
+     * @return the bounds, indexed from 0 to {@code patternCount}
+     */
+    private static double[] entropyBounds(int[][] candidates, int patternCount) {
+        if (candidates.length == 1) {
+            return EntropyScorer.entropyBounds(candidates[0].length, patternCount);
+        }
+        final double[] bounds = new double[patternCount + 1];
+        for (int k = 1; k < bounds.length; k++) {
+            double bound = 0.0;
+            for (final int[] board : candidates) {
+                bound += EntropyScorer.exactBound(k, board.length);
+            }
+            // Allow for rounding error in the summed entropy terms
+            bounds[k] = Math.round((bound + 1e-9) * 100) / 100.0;
+        }
+        return bounds;
+    }
+
+}
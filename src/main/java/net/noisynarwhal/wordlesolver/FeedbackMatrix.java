@@ -0,0 +1,204 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.stream.IntStream;
+
+/**
+ * A precomputed guess &times; answer matrix of encoded feedback patterns (see {@link Patterns}), indexed by the word
+ * IDs of a {@link WordList}. Patterns of words of up to {@value Patterns#MAX_BYTE_WORD_LENGTH} letters are stored as a
+ * single byte, so the matrix for the default word list takes roughly 74 MB; patterns of longer words take two bytes.
+ * The patterns live either on the heap or in a memory-mapped {@link DictionaryFile}. The matrix is immutable and can
+ * be shared by any number of solvers.
+ * <p>
+ * Each pattern width has its own implementation, so a service that only loads 5-letter dictionaries reads patterns
+ * through a single, inlined byte access.
+ */
+public abstract class FeedbackMatrix {
+    /**
+     * The largest word count for which the matrix can be addressed with an int index.
+     */
+    public static final int MAX_WORDS = 46_340;
+    /**
+     * The largest word count for which a matrix of two-byte patterns can be addressed with an int index.
+     */
+    public static final int MAX_WIDE_WORDS = 32_767;
+    private static final Logger logger = LoggerFactory.getLogger(FeedbackMatrix.class);
+
+    private final int size;
+    private final int wordLength;
+    private final int patternCount;
+    private final ByteBuffer patterns;
+    private final int[] distinctPatterns;
+
+    private FeedbackMatrix(int size, int wordLength, ByteBuffer patterns, int[] distinctPatterns) {
+        if (patterns.capacity() != (long) size * size * FeedbackMatrix.patternBytes(wordLength)
+                || distinctPatterns.length != size) {
+            throw new IllegalArgumentException("Pattern data does not match a matrix of " + size + " words");
+        }
+        this.size = size;
+        this.wordLength = wordLength;
+        this.patternCount = Patterns.patternCount(wordLength);
+        this.patterns = patterns;
+        this.distinctPatterns = distinctPatterns;
+    }
+
+    /**
+     * Create a matrix over existing pattern data.
+     *
+     * @param size             the number of words
+     * @param wordLength       the length of the words
+     * @param patterns         the {@code size * size} patterns, row by guess ID, each of
+     *                         {@link #patternBytes(int)} big-endian bytes
+     * @param distinctPatterns the number of distinct patterns in each row
+     * @return the matrix
+     */
+    static FeedbackMatrix of(int size, int wordLength, ByteBuffer patterns, int[] distinctPatterns) {
+        return FeedbackMatrix.patternBytes(wordLength) == 1
+                ? new BytePatterns(size, wordLength, patterns, distinctPatterns)
+                : new ShortPatterns(size, wordLength, patterns, distinctPatterns);
+    }
+
+    /**
+     * @param wordLength a word length
+     * @return the number of bytes a pattern of words of the length takes
+     */
+    static int patternBytes(int wordLength) {
+        return wordLength <= Patterns.MAX_BYTE_WORD_LENGTH ? 1 : 2;
+    }
+
+    /**
+     * Build the matrix for the given word list.
+     *
+     * @param wordList the word list
+     * @return the matrix
+     */
+    public static FeedbackMatrix build(WordList wordList) {
+        final int size = wordList.size();
+        final int length = wordList.length();
+        final boolean wide = FeedbackMatrix.patternBytes(length) > 1;
+        if (size > (wide ? MAX_WIDE_WORDS : MAX_WORDS)) {
+            throw new IllegalArgumentException("Word list is too large for a feedback matrix: " + size);
+        }
+
+        final long start = System.nanoTime();
+        final long[] packed = wordList.packed();
+        final int patternCount = Patterns.patternCount(length);
+        final byte[] bytes = wide ? null : new byte[size * size];
+        final ByteBuffer patterns = wide ? ByteBuffer.allocate(size * size * Short.BYTES) : ByteBuffer.wrap(bytes);
+        final ShortBuffer shorts = patterns.asShortBuffer();
+        final int[] distinctPatterns = new int[size];
+        IntStream.range(0, size).parallel().forEach(guessId -> {
+            final int offset = guessId * size;
+            final short[] row = wide ? new short[size] : null;
+            if (wide) {
+                Patterns.compute(packed[guessId], packed, length, row, 0);
+                shorts.put(offset, row);
+            } else {
+                Patterns.compute(packed[guessId], packed, length, bytes, offset);
+            }
+            final long[] seen = new long[(patternCount + 63) >>> 6];
+            int distinct = 0;
+            for (int answerId = 0; answerId < size; answerId++) {
+                final int pattern = wide ? row[answerId] & 0xFFFF : bytes[offset + answerId] & 0xFF;
+                if ((seen[pattern >>> 6] & (1L << pattern)) == 0) {
+                    seen[pattern >>> 6] |= 1L << pattern;
+                    distinct++;
+                }
+            }
+            distinctPatterns[guessId] = distinct;
+        });
+        logger.info("Built {}x{} feedback matrix in {} ms", size, size, (System.nanoTime() - start) / 1_000_000);
+
+        return FeedbackMatrix.of(size, length, patterns, distinctPatterns);
+    }
+
+    /**
+     * @return the number of words in the matrix
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the length of the words
+     */
+    public int wordLength() {
+        return this.wordLength;
+    }
+
+    /**
+     * @return the number of patterns words of this length can produce, so every pattern is below it
+     */
+    public int patternCount() {
+        return this.patternCount;
+    }
+
+    /**
+     * Get the number of distinct patterns a guess produces over the whole word list. This bounds the number of
+     * distinct patterns it can produce over any subset of possible answers.
+     *
+     * @param guessId the ID of the guessed word
+     * @return the number of distinct patterns
+     */
+    public int distinctPatterns(int guessId) {
+        return this.distinctPatterns[guessId];
+    }
+
+    /**
+     * Get the encoded feedback pattern for guessing one word when another is the answer.
+     *
+     * @param guessId  the ID of the guessed word
+     * @param answerId the ID of the answer
+     * @return the encoded pattern, below {@link #patternCount()}
+     */
+    public abstract int pattern(int guessId, int answerId);
+
+    /**
+     * @return a read-only view of the patterns, row by guess ID, each of {@link #patternBytes(int)} bytes
+     */
+    ByteBuffer patterns() {
+        return this.patterns.asReadOnlyBuffer().clear();
+    }
+
+    /**
+     * Patterns of one byte, for words of up to {@value Patterns#MAX_BYTE_WORD_LENGTH} letters.
+     */
+    private static final class BytePatterns extends FeedbackMatrix {
+        private final int size;
+        private final ByteBuffer patterns;
+
+        private BytePatterns(int size, int wordLength, ByteBuffer patterns, int[] distinctPatterns) {
+            super(size, wordLength, patterns, distinctPatterns);
+            this.size = size;
+            this.patterns = patterns;
+        }
+
+        @Override
+        public int pattern(int guessId, int answerId) {
+            return this.patterns.get(guessId * this.size + answerId) & 0xFF;
+        }
+    }
+
+    /**
+     * Patterns of two bytes, for longer words.
+     */
+    private static final class ShortPatterns extends FeedbackMatrix {
+        private final int size;
+        private final ByteBuffer patterns;
+
+        private ShortPatterns(int size, int wordLength, ByteBuffer patterns, int[] distinctPatterns) {
+            super(size, wordLength, patterns, distinctPatterns);
+            this.size = size;
+            this.patterns = patterns;
+        }
+
+        @Override
+        public int pattern(int guessId, int answerId) {
+            return this.patterns.getShort((guessId * this.size + answerId) << 1) & 0xFFFF;
+        }
+    }
+}
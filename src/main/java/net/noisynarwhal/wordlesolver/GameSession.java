@@ -0,0 +1,68 @@
+package net.noisynarwhal.wordlesolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * A game in progress: the solver state narrowed by the guesses made so far. Each guess only filters the already
+ * narrowed candidates, so later turns are cheaper than replaying the whole history. The state and the guesses are
+ * replaced together as one immutable snapshot, so concurrent requests never see one without the other. Guesses are
+ * added one at a time, so each is applied exactly once even when requests for the session race.
+ */
+public class GameSession {
+    private final String id;
+    private volatile Snapshot snapshot;
+
+    /**
+     * The state of a session after some guesses.
+     *
+     * @param state   the solver state
+     * @param guesses the guesses made so far, in order
+     */
+    public record Snapshot(SolverState state, List<Guess> guesses) {
+    }
+
+    public GameSession(String id, SolverState state) {
+        this.id = id;
+        this.snapshot = new Snapshot(state, List.of());
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * @return the current state and guesses
+     */
+    public Snapshot getSnapshot() {
+        return this.snapshot;
+    }
+
+    /**
+     * Record a guess and narrow the state with its feedback.
+     *
+     * @param guess the guess and its feedback
+     * @return the snapshot after the guess
+     */
+    public Snapshot addGuess(Guess guess) {
+        return this.addGuess(guess, SolverState::update);
+    }
+
+    /**
+     * Record a guess and narrow the state with its feedback using the given update. The update is applied once,
+     * while no other guess can be added to the session, so it may have side effects such as recording metrics.
+     *
+     * @param guess  the guess and its feedback
+     * @param update applies the feedback of a guess to a state
+     * @return the snapshot after the guess
+     */
+    public synchronized Snapshot addGuess(Guess guess, BiFunction<SolverState, Guess, SolverState> update) {
+        final Snapshot current = this.snapshot;
+        final List<Guess> guesses = new ArrayList<>(current.guesses());
+        guesses.add(guess);
+        final Snapshot next = new Snapshot(update.apply(current.state(), guess), List.copyOf(guesses));
+        this.snapshot = next;
+        return next;
+    }
+}
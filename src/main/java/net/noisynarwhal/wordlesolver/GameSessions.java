@@ -0,0 +1,69 @@
+package net.noisynarwhal.wordlesolver;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * A bounded in-memory store of game sessions. Sessions expire after {@code solver.sessions.ttl} without access, and
+ * the least recently used sessions are evicted beyond {@code solver.sessions.maximum-size}.
+ */
+@Component
+public class GameSessions {
+    private final SolverService solverService;
+    private final Cache<String, GameSession> sessions;
+
+    public GameSessions(SolverConfig solverConfig, SolverService solverService) {
+        final SolverConfig.Sessions config = solverConfig.getSessions();
+        this.solverService = solverService;
+        this.sessions = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterAccess(config.getTtl())
+                .build();
+    }
+
+    /**
+     * @return a new session with no guesses over the default dictionary
+     */
+    public GameSession create() {
+        return this.create(null, false);
+    }
+
+    /**
+     * @param dictionary the name of the dictionary, or null for the default dictionary
+     * @param hardMode   whether guesses must use every revealed hint
+     * @return a new session with no guesses
+     * @throws IllegalArgumentException if there is no dictionary with the name
+     */
+    public GameSession create(String dictionary, boolean hardMode) {
+        final GameSession session = new GameSession(UUID.randomUUID().toString(),
+                this.solverService.initialState(dictionary, hardMode));
+        this.sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * @param sessionId the session ID
+     * @return the session
+     * @throws SessionNotFoundException if the session does not exist or has expired
+     */
+    public GameSession get(String sessionId) {
+        final GameSession session = this.sessions.getIfPresent(sessionId);
+        if (session == null) {
+            throw new SessionNotFoundException(sessionId);
+        }
+        return session;
+    }
+
+    /**
+     * @param sessionId the session ID
+     * @throws SessionNotFoundException if the session does not exist or has expired
+     */
+    public void remove(String sessionId) {
+        if (this.sessions.asMap().remove(sessionId) == null) {
+            throw new SessionNotFoundException(sessionId);
+        }
+    }
+}
@@ -7,19 +7,22 @@ public record Guess(String word, String feedback) {
     /**
      * Create a new Guess with the given word and feedback.
      *
-     * @param word     the word guessed; must be 5 letters long
-     * @param feedback the feedback received; must be 5 characters long composed of 'B', 'Y', 'G'
+     * @param word     the word guessed; must be 1 to {@value Patterns#MAX_WORD_LENGTH} letters long, and is checked
+     *                 against the length and alphabet of a dictionary when applied to it
+     * @param feedback the feedback received; must be as long as the word and composed of 'B', 'Y', 'G'
      */
     public Guess(String word, String feedback) {
 
         this.word = word.trim().toUpperCase();
         this.feedback = feedback.trim().toUpperCase();
 
-        if (!this.word.matches("^[A-Z]{5}$")) {
-            throw new IllegalArgumentException("Word must be 5 letters long: '" + this.word + '\'');
+        if (!this.word.matches("^\\p{L}{1," + Patterns.MAX_WORD_LENGTH + "}$")) {
+            throw new IllegalArgumentException("Word must be 1 to " + Patterns.MAX_WORD_LENGTH + " letters long: '"
+                    + this.word + '\'');
         }
-        if (!this.feedback.matches("^[BYG]{5}$")) {
-            throw new IllegalArgumentException("Feedback must be 5 characters long composed of 'B', 'Y', 'G': '" + this.feedback + '\'');
+        if (this.feedback.length() != this.word.length() || !this.feedback.matches("^[BYG]+$")) {
+            throw new IllegalArgumentException("Feedback must be " + this.word.length()
+                    + " characters long composed of 'B', 'Y', 'G': '" + this.feedback + '\'');
         }
     }
 
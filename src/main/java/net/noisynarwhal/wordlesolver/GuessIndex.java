@@ -0,0 +1,97 @@
+package net.noisynarwhal.wordlesolver;
+
+/**
+ * Inverted indexes over the words of a {@link WordList}, used to find the guesses allowed in hard mode, where every
+ * revealed hint must be used: green letters stay in place, and each guess holds every letter at least as many times
+ * as a single earlier guess revealed it in green or yellow.
+ * <p>
+ * The index holds the set of words with each letter at each position, and the set of words with each letter at least
+ * once, twice, and so on. The guesses allowed after some feedback are the intersection of a few of these sets, so
+ * they are found without looking at any word.
+ */
+public final class GuessIndex {
+    private final WordList wordList;
+    private final CandidateSet all;
+    private final CandidateSet[][] byPosition;
+    private final CandidateSet[][] byCount;
+
+    private GuessIndex(WordList wordList, CandidateSet all, CandidateSet[][] byPosition, CandidateSet[][] byCount) {
+        this.wordList = wordList;
+        this.all = all;
+        this.byPosition = byPosition;
+        this.byCount = byCount;
+    }
+
+    /**
+     * Build the index of a word list.
+     *
+     * @param wordList the word list
+     * @return the index
+     */
+    public static GuessIndex build(WordList wordList) {
+        final CandidateSet all = wordList.allWords();
+        final int length = wordList.length();
+        final int letters = wordList.alphabet().size();
+        final CandidateSet[][] byPosition = new CandidateSet[length][letters + 1];
+        final CandidateSet[][] byCount = new CandidateSet[letters + 1][length + 1];
+        for (int letter = 1; letter <= letters; letter++) {
+            final int indexed = letter;
+            for (int i = 0; i < length; i++) {
+                final int position = i;
+                byPosition[i][letter] = all.retain(id -> Patterns.letter(wordList.packed(id), position) == indexed);
+            }
+            for (int count = 1; count <= length; count++) {
+                final int minimum = count;
+                byCount[letter][count] = all.retain(id -> Patterns.count(wordList.packed(id), indexed) >= minimum);
+            }
+        }
+        return new GuessIndex(wordList, all, byPosition, byCount);
+    }
+
+    /**
+     * Find the guesses that use every hint revealed by the feedback of a guess.
+     *
+     * @param guess the guess and its feedback
+     * @return the allowed guesses
+     * @throws IllegalArgumentException if the guess is not a word of the length and alphabet of the word list
+     */
+    public CandidateSet eligible(Guess guess) {
+        final long packed = this.wordList.pack(guess.word());
+        final String feedback = guess.feedback();
+        final int letters = this.wordList.alphabet().size();
+        final int[] revealed = new int[letters + 1];
+        CandidateSet eligible = this.all;
+        for (int i = 0; i < feedback.length(); i++) {
+            final int letter = Patterns.letter(packed, i);
+            switch (feedback.charAt(i)) {
+                case 'G' -> {
+                    eligible = eligible.and(this.byPosition[i][letter]);
+                    revealed[letter]++;
+                }
+                case 'Y' -> revealed[letter]++;
+                default -> {
+                }
+            }
+        }
+        for (int letter = 1; letter <= letters; letter++) {
+            if (revealed[letter] > 0) {
+                eligible = eligible.and(this.byCount[letter][revealed[letter]]);
+            }
+        }
+        return eligible;
+    }
+
+    /**
+     * Find the guesses that use every hint revealed by the feedback of a sequence of guesses.
+     *
+     * @param guesses the guesses and their feedback
+     * @return the allowed guesses
+     */
+    public CandidateSet eligible(Iterable<Guess> guesses) {
+        CandidateSet eligible = this.all;
+        for (final Guess guess : guesses) {
+            eligible = eligible.and(this.eligible(guess));
+        }
+        return eligible;
+    }
+}
@@ -0,0 +1,269 @@
+package net.noisynarwhal.wordlesolver;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Ranks guesses by the expected number of guesses needed to finish the game, searching a few guesses ahead.
+ * <p>
+ * The expected cost of a state with candidates S, searching d guesses ahead, is:
+ * <pre>
+ *     E(S, d) = min over g of 1 + sum over feedback p other than GGGGG of |S_p| / |S| * E(S_p, d - 1)
+ * </pre>
+ * where S_p are the candidates left after feedback p for guess g. Only the {@code breadth} guesses with the highest
+ * entropy are tried at each state, states of one or two candidates are solved exactly, and beyond the search depth
+ * the cost is estimated from the number of candidates. In hard mode only the guesses the requested state allows are
+ * tried there; the states below it are searched as in normal mode, which makes their cost a lower bound. Completed
+ * subtree costs are memoized by state, so requests share the work of every state any of them has searched.
+ * <p>
+ * The candidate guesses of the requested state are evaluated in parallel on the scoring pool. When the time budget
+ * runs out, the guesses evaluated so far are returned, best first; if none finished, the candidates are returned in
+ * entropy order.
+ */
+@Component
+public class LookaheadStrategy implements SuggestionStrategy {
+    public static final String NAME = "lookahead";
+    private static final double LN_BRANCHING = Math.log(30);
+
+    private final ForkJoinPool scoringPool;
+    private final int depth;
+    private final int breadth;
+    private final Cache<Node, Double> memo;
+
+    /**
+     * A state searched to a given depth.
+     */
+    private record Node(SolverState state, int depth) {
+    }
+
+    /**
+     * Thrown inside a search when the time budget runs out. It carries no stack trace, since it only unwinds the
+     * search.
+     */
+    private static final class BudgetExceededException extends RuntimeException {
+        private BudgetExceededException() {
+            super(null, null, false, false);
+        }
+    }
+
+    @Autowired
+    public LookaheadStrategy(SolverConfig solverConfig, ForkJoinPool scoringPool) {
+        this(scoringPool, solverConfig.getLookahead().getDepth(), solverConfig.getLookahead().getBreadth(),
+                solverConfig.getLookahead().getMemoSize());
+    }
+
+    /**
+     * @param scoringPool the pool the candidate guesses of a state are evaluated on, or null to evaluate them on the
+     *                    calling thread
+     * @param depth       the number of guesses to search ahead
+     * @param breadth     the number of guesses tried at each state
+     * @param memoSize    the maximum number of memoized states
+     */
+    public LookaheadStrategy(ForkJoinPool scoringPool, int depth, int breadth, long memoSize) {
+        if (depth < 1 || breadth < 1) {
+            throw new IllegalArgumentException("Lookahead depth and breadth must be positive");
+        }
+        this.scoringPool = scoringPool;
+        this.depth = depth;
+        this.breadth = breadth;
+        this.memo = Caffeine.newBuilder().maximumSize(memoSize).build();
+    }
+
+    /**
+     * Forget the costs memoized for the states of a dictionary that is no longer served.
+     */
+    @EventListener
+    public void onDictionaryReplaced(DictionaryReplacedEvent event) {
+        final WordList wordList = event.dictionary().wordList();
+        this.memo.asMap().keySet().removeIf(node -> node.state().wordList() == wordList);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Suggestion> suggest(SolverState state, Duration budget) {
+        final CandidateSet possibleWords = state.possibleWords();
+        if (possibleWords.isEmpty()) {
+            return List.of();
+        }
+        final long deadline = System.nanoTime() + budget.toNanos();
+        final WordList wordList = state.wordList();
+        final int[] candidates = possibleWords.toArray();
+        if (candidates.length <= 2) {
+            // Guessing a candidate is optimal: it wins at once or leaves a single candidate
+            final List<Suggestion> suggestions = new ArrayList<>(candidates.length);
+            final EntropyKernel kernel = new EntropyKernel(wordList.feedback(), candidates);
+            for (final int id : candidates) {
+                suggestions.add(new Suggestion(wordList.word(id), kernel.entropy(id), true,
+                        LookaheadStrategy.exactCost(candidates.length)));
+            }
+            return suggestions;
+        }
+
+        final List<Suggestion> ranked = this.topGuesses(state, candidates);
+        final List<ForkJoinTask<Suggestion>> evaluations = new ArrayList<>(ranked.size());
+        for (final Suggestion guess : ranked) {
+            final ForkJoinTask<Suggestion> evaluation = ForkJoinTask.adapt(() -> {
+                try {
+                    final double cost = this.cost(state, candidates, wordList.id(guess.word()), this.depth, deadline);
+                    return new Suggestion(guess.word(), guess.entropy(), guess.isPossibleAnswer(), cost);
+                } catch (BudgetExceededException e) {
+                    return null;
+                }
+            });
+            if (this.scoringPool == null) {
+                evaluation.invoke();
+            } else {
+                this.scoringPool.submit(evaluation);
+            }
+            evaluations.add(evaluation);
+        }
+
+        final List<Suggestion> evaluated = new ArrayList<>(ranked.size());
+        for (final ForkJoinTask<Suggestion> evaluation : evaluations) {
+            final Suggestion suggestion = evaluation.join();
+            if (suggestion != null) {
+                evaluated.add(suggestion);
+            }
+        }
+        if (evaluated.isEmpty()) {
+            return ranked;
+        }
+        evaluated.sort(Comparator.comparingDouble(Suggestion::expectedGuesses).thenComparing(Comparator.naturalOrder()));
+        return evaluated;
+    }
+
+    /**
+     * Compute the expected number of guesses to finish after playing a guess, searching the given number of guesses
+     * ahead (including this one).
+     */
+    private double cost(SolverState state, int[] candidates, int guessId, int depth, long deadline) {
+        final FeedbackMatrix matrix = state.wordList().feedback();
+
+        // Group the candidates by feedback with a counting sort
+        final int patternCount = matrix.patternCount();
+        final int allGreen = patternCount - 1;
+        final int[] counts = new int[patternCount + 1];
+        for (final int answerId : candidates) {
+            counts[matrix.pattern(guessId, answerId) + 1]++;
+        }
+        for (int pattern = 0; pattern < patternCount; pattern++) {
+            counts[pattern + 1] += counts[pattern];
+        }
+        final int[] grouped = new int[candidates.length];
+        final int[] next = Arrays.copyOf(counts, patternCount);
+        for (final int answerId : candidates) {
+            grouped[next[matrix.pattern(guessId, answerId)]++] = answerId;
+        }
+
+        double expected = 1.0;
+        for (int pattern = 0; pattern < patternCount; pattern++) {
+            final int size = counts[pattern + 1] - counts[pattern];
+            if (size == 0 || pattern == allGreen) {
+                continue;
+            }
+            final double probability = (double) size / candidates.length;
+            if (size <= 2) {
+                expected += probability * LookaheadStrategy.exactCost(size);
+            } else if (depth == 1) {
+                expected += probability * LookaheadStrategy.estimatedCost(size);
+            } else {
+                final CandidateSet subset = CandidateSet.of(matrix.size(), grouped, counts[pattern], counts[pattern + 1]);
+                expected += probability * this.bestCost(SolverState.of(state.wordList(), subset), depth - 1, deadline);
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * Compute the expected number of guesses to finish from a state of more than two candidates, searching the given
+     * number of guesses ahead.
+     */
+    private double bestCost(SolverState state, int depth, long deadline) {
+        final Node node = new Node(state, depth);
+        final Double memoized = this.memo.getIfPresent(node);
+        if (memoized != null) {
+            return memoized;
+        }
+        if (System.nanoTime() - deadline > 0) {
+            throw new BudgetExceededException();
+        }
+
+        final int[] candidates = state.possibleWords().toArray();
+        // No guess does better than a candidate that tells all the others apart
+        final double lowerBound = 2.0 - 1.0 / candidates.length;
+        double best = Double.MAX_VALUE;
+        for (final Suggestion guess : this.topGuesses(state, candidates)) {
+            best = Math.min(best, this.cost(state, candidates, state.wordList().id(guess.word()), depth, deadline));
+            if (best <= lowerBound + 1e-12) {
+                break;
+            }
+        }
+        this.memo.put(node, best);
+        return best;
+    }
+
+    /**
+     * Find the {@code breadth} guesses with the highest entropy over the candidates, skipping guesses whose entropy
+     * bound cannot beat the current selection.
+     */
+    private List<Suggestion> topGuesses(SolverState state, int[] candidates) {
+        final WordList wordList = state.wordList();
+        final FeedbackMatrix matrix = wordList.feedback();
+        final CandidateSet possibleWords = state.possibleWords();
+        final CandidateSet guesses = state.guesses();
+        final EntropyKernel kernel = new EntropyKernel(matrix, candidates);
+        final double[] bounds = EntropyScorer.entropyBounds(candidates.length, matrix.patternCount());
+
+        final PriorityQueue<Suggestion> heap = new PriorityQueue<>(this.breadth + 1, Comparator.reverseOrder());
+        // Possible answers first, so that they hold their place on ties
+        for (final int id : candidates) {
+            heap.add(new Suggestion(wordList.word(id), kernel.entropy(id), true));
+            if (heap.size() > this.breadth) {
+                heap.poll();
+            }
+        }
+        for (int id = 0; id < wordList.size(); id++) {
+            if (possibleWords.contains(id) || !guesses.contains(id)) {
+                continue;
+            }
+            // Words are scanned in ID order, so a word that can at best tie the current last place loses the tie
+            if (heap.size() == this.breadth && bounds[matrix.distinctPatterns(id)] <= heap.peek().entropy()) {
+                continue;
+            }
+            heap.add(new Suggestion(wordList.word(id), kernel.entropy(id), false));
+            if (heap.size() > this.breadth) {
+                heap.poll();
+            }
+        }
+        final List<Suggestion> top = new ArrayList<>(heap);
+        Collections.sort(top);
+        return top;
+    }
+
+    /**
+     * The expected number of guesses to finish with one or two candidates left: guess one of them.
+     */
+    private static double exactCost(int size) {
+        return size == 1 ? 1.0 : 1.5;
+    }
+
+    /**
+     * Estimate the expected number of guesses to finish with the given number of candidates left, assuming each
+     * guess splits the candidates about {@code e^LN_BRANCHING} ways.
+     */
+    private static double estimatedCost(int size) {
+        return 1.0 + (size - 1.0) / size * (1.0 + Math.log(size - 1.0) / LN_BRANCHING);
+    }
+}
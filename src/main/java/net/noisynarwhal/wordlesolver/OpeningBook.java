@@ -0,0 +1,213 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Precomputed suggestions for the first two turns: the state before any guess, and every state reachable by playing
+ * the top opener. These are the most expensive states to score and they never change for a given word list, so the
+ * book is computed at build time and stored as a compact binary resource tagged with the word list fingerprint.
+ * <p>
+ * The binary format is a header (magic, version, word list fingerprint, opener ID, entry count) followed by one entry
+ * per state: the feedback received for the opener (-1 for the first turn), the number of suggestions, then for each
+ * suggestion its word ID and its entropy in hundredths of a bit, both as unsigned shorts.
+ */
+public final class OpeningBook {
+    public static final String BOOK_FILE = "/opening-book.bin";
+    private static final int MAGIC = 0x57534F42;
+    private static final int VERSION = 1;
+    private static final int FIRST_TURN = -1;
+    private static final Logger logger = LoggerFactory.getLogger(OpeningBook.class);
+
+    private final WordList wordList;
+    private final int openerId;
+    private final SortedMap<Integer, List<Suggestion>> byFeedback;
+    private final Map<CandidateSet, List<Suggestion>> byCandidates = new HashMap<>();
+
+    private OpeningBook(WordList wordList, int openerId, SortedMap<Integer, List<Suggestion>> byFeedback) {
+        this.wordList = wordList;
+        this.openerId = openerId;
+        this.byFeedback = byFeedback;
+        for (final Map.Entry<Integer, List<Suggestion>> entry : byFeedback.entrySet()) {
+            this.byCandidates.put(OpeningBook.candidates(wordList, openerId, entry.getKey()), entry.getValue());
+        }
+    }
+
+    /**
+     * Create a book with no entries.
+     *
+     * @param wordList the word list
+     * @return the empty book
+     */
+    public static OpeningBook empty(WordList wordList) {
+        return new OpeningBook(wordList, -1, new TreeMap<>());
+    }
+
+    /**
+     * Compute the book for a word list.
+     *
+     * @param wordList    the word list
+     * @param scoringPool the pool to score suggestions on
+     * @return the book
+     */
+    public static OpeningBook build(WordList wordList, ForkJoinPool scoringPool) {
+        final SortedMap<Integer, List<Suggestion>> byFeedback = new TreeMap<>();
+        final EntropyScorer scorer = new EntropyScorer(scoringPool);
+        final SolverState initial = SolverState.initial(wordList);
+        final List<Suggestion> firstTurn = List.copyOf(scorer.score(initial));
+        if (firstTurn.isEmpty()) {
+            return OpeningBook.empty(wordList);
+        }
+        byFeedback.put(FIRST_TURN, firstTurn);
+
+        final String opener = firstTurn.get(0).word();
+        final int length = wordList.length();
+        for (int feedback = 0; feedback < Patterns.patternCount(length); feedback++) {
+            final SolverState state = initial.update(new Guess(opener, Patterns.decode(feedback, length)));
+            if (!state.possibleWords().isEmpty()) {
+                byFeedback.put(feedback, List.copyOf(scorer.score(state)));
+            }
+        }
+        return new OpeningBook(wordList, wordList.id(opener), byFeedback);
+    }
+
+    /**
+     * Load the book resource for a word list. A missing resource, or one built for another word list, results in an
+     * empty book.
+     *
+     * @param wordList the word list
+     * @return the book
+     */
+    public static OpeningBook load(WordList wordList) {
+        try (final InputStream in = OpeningBook.class.getResourceAsStream(BOOK_FILE)) {
+            if (in == null) {
+                logger.warn("No opening book found at {}; first turns will be computed live", BOOK_FILE);
+                return OpeningBook.empty(wordList);
+            }
+            final OpeningBook book = OpeningBook.read(new BufferedInputStream(in), wordList);
+            logger.info("Loaded opening book with {} states", book.size());
+            return book;
+        } catch (IOException | IllegalStateException e) {
+            logger.warn("Ignoring opening book {}: {}", BOOK_FILE, e.getMessage());
+            return OpeningBook.empty(wordList);
+        }
+    }
+
+    /**
+     * Read a book written by {@link #write(OutputStream)}.
+     *
+     * @param in       the stream to read from
+     * @param wordList the word list the book must have been built for
+     * @return the book
+     * @throws IOException           if the stream cannot be read
+     * @throws IllegalStateException if the stream is not a book for the word list
+     */
+    public static OpeningBook read(InputStream in, WordList wordList) throws IOException {
+        final DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+            throw new IllegalStateException("Unsupported opening book format");
+        }
+        if (data.readLong() != wordList.fingerprint()) {
+            throw new IllegalStateException("Opening book was built for a different word list");
+        }
+        final int openerId = data.readInt();
+        final int entries = data.readInt();
+
+        final SortedMap<Integer, List<Suggestion>> byFeedback = new TreeMap<>();
+        for (int entry = 0; entry < entries; entry++) {
+            final int feedback = data.readShort();
+            final CandidateSet candidates = OpeningBook.candidates(wordList, openerId, feedback);
+            final int count = data.readInt();
+            final List<Suggestion> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                final int id = data.readUnsignedShort();
+                final double entropy = data.readUnsignedShort() / 100.0;
+                suggestions.add(new Suggestion(wordList.word(id), entropy, candidates.contains(id)));
+            }
+            byFeedback.put(feedback, List.copyOf(suggestions));
+        }
+        return new OpeningBook(wordList, openerId, byFeedback);
+    }
+
+    /**
+     * Write the book in its binary format.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(OutputStream out) throws IOException {
+        final DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeLong(this.wordList.fingerprint());
+        data.writeInt(this.openerId);
+        data.writeInt(this.byFeedback.size());
+        for (final Map.Entry<Integer, List<Suggestion>> entry : this.byFeedback.entrySet()) {
+            data.writeShort(entry.getKey());
+            data.writeInt(entry.getValue().size());
+            for (final Suggestion suggestion : entry.getValue()) {
+                data.writeShort(this.wordList.id(suggestion.word()));
+                data.writeShort((int) Math.round(suggestion.entropy() * 100));
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Look up the suggestions for a candidate set.
+     *
+     * @param candidates the surviving candidates
+     * @return the precomputed suggestions, or empty if the state is not in the book
+     */
+    public Optional<List<Suggestion>> lookup(CandidateSet candidates) {
+        return Optional.ofNullable(this.byCandidates.get(candidates));
+    }
+
+    /**
+     * @return the number of states in the book
+     */
+    public int size() {
+        return this.byFeedback.size();
+    }
+
+    private static CandidateSet candidates(WordList wordList, int openerId, int feedback) {
+        final CandidateSet all = CandidateSet.all(wordList.size());
+        if (feedback == FIRST_TURN) {
+            return all;
+        }
+        final FeedbackMatrix matrix = wordList.feedback();
+        return all.retain(answerId -> matrix.pattern(openerId, answerId) == feedback);
+    }
+
+    /**
+     * Build the opening book for the default word list and write it to the file given as the only argument.
+     *
+     * @param args the output file
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: OpeningBook <output file>");
+        }
+        final long start = System.nanoTime();
+        final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            final OpeningBook book = OpeningBook.build(WordList.getDefault(), pool);
+            final Path file = Path.of(args[0]);
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (final OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                book.write(out);
+            }
+            logger.info("Wrote opening book with {} states to {} in {} ms",
+                    book.size(), file, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
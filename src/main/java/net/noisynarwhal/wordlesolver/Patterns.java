@@ -0,0 +1,288 @@
+package net.noisynarwhal.wordlesolver;
+
+/**
+ * Encoding of Wordle feedback patterns. A pattern is stored as a base-3 number with one digit per letter position
+ * ('B' = 0, 'Y' = 1, 'G' = 2), the first position being the most significant digit. Every pattern of a word of length
+ * L therefore fits in the range 0 to 3^L - 1: a single byte for words of up to 5 letters, and two bytes for words of
+ * up to {@value #MAX_WORD_LENGTH}.
+ * <p>
+ * Patterns are computed over packed words: each letter is a 5-bit lane of a long, position 0 in the lowest bits (see
+ * {@link Alphabet#pack(CharSequence)}). All positions of a word are compared at once with SWAR (SIMD within a
+ * register) arithmetic, so the routine has no nested loops and no data-dependent branches. Lanes past the end of a
+ * word are zero in both words, so the same lane constants serve every word length.
+ */
+public final class Patterns {
+    public static final int DEFAULT_WORD_LENGTH = 5;
+    public static final int MAX_WORD_LENGTH = 10;
+    /**
+     * The largest word length whose patterns fit in a byte.
+     */
+    public static final int MAX_BYTE_WORD_LENGTH = 5;
+
+    static final int LANE_BITS = 5;
+    private static final int LETTER_MASK = (1 << LANE_BITS) - 1;
+    private static final int LANES = Long.SIZE / LANE_BITS;
+    /**
+     * The lowest bit of each lane.
+     */
+    private static final long LANE_ONES = Patterns.laneOnes();
+    /**
+     * The highest bit of each lane, which flags the lane in lane masks.
+     */
+    private static final long LANE_FLAGS = LANE_ONES << (LANE_BITS - 1);
+    /**
+     * The bits of each lane below its flag.
+     */
+    private static final long LANE_LOW_BITS = LANE_ONES * (LETTER_MASK >>> 1);
+
+    private Patterns() {
+        // Prevent instantiation
+    }
+
+    private static long laneOnes() {
+        long ones = 0;
+        for (int i = 0; i < LANES; i++) {
+            ones |= 1L << (i * LANE_BITS);
+        }
+        return ones;
+    }
+
+    /**
+     * @param length a word length, from 1 to {@value #MAX_WORD_LENGTH}
+     * @return the number of feedback patterns of words of the length, 3^length
+     */
+    public static int patternCount(int length) {
+        Patterns.checkLength(length);
+        int count = 1;
+        for (int i = 0; i < length; i++) {
+            count *= 3;
+        }
+        return count;
+    }
+
+    /**
+     * @param length a word length, from 1 to {@value #MAX_WORD_LENGTH}
+     * @return the encoded pattern of a correct guess, where every letter is green
+     */
+    public static int allGreen(int length) {
+        return Patterns.patternCount(length) - 1;
+    }
+
+    /**
+     * @param length a word length
+     * @throws IllegalArgumentException if the length is not from 1 to {@value #MAX_WORD_LENGTH}
+     */
+    static void checkLength(int length) {
+        if (length < 1 || length > MAX_WORD_LENGTH) {
+            throw new IllegalArgumentException("Word length must be 1 to " + MAX_WORD_LENGTH + ": " + length);
+        }
+    }
+
+    /**
+     * Compute the encoded feedback pattern that would result from guessing 'guess' when 'target' is the answer.
+     * Green letters are marked first; the remaining guess letters are then marked yellow from left to right, each
+     * consuming one unmatched occurrence in the target.
+     *
+     * @param guess  the letters of the guessed word
+     * @param target the letters of the target word, as many as the guess
+     * @return the encoded pattern
+     */
+    public static int compute(char[] guess, char[] target) {
+        final int length = guess.length;
+        int green = 0;
+        for (int i = 0; i < length; i++) {
+            if (guess[i] == target[i]) {
+                green |= 1 << i;
+            }
+        }
+
+        int used = green;
+        int code = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = 0;
+            if ((green & (1 << i)) != 0) {
+                digit = 2;
+            } else {
+                final char guessChar = guess[i];
+                for (int j = 0; j < length; j++) {
+                    if ((used & (1 << j)) == 0 && target[j] == guessChar) {
+                        used |= 1 << j;
+                        digit = 1;
+                        break;
+                    }
+                }
+            }
+            code = code * 3 + digit;
+        }
+
+        return code;
+    }
+
+    /**
+     * Compute the encoded feedback pattern that would result from guessing 'guess' when 'target' is the answer.
+     *
+     * @param guess  the word to guess, in the {@link Alphabet#latin() Latin alphabet}
+     * @param target the target word, as long as the guess
+     * @return the encoded pattern
+     */
+    public static int compute(String guess, String target) {
+        if (guess.length() != target.length()) {
+            throw new IllegalArgumentException("Words differ in length: '" + guess + "' and '" + target + '\'');
+        }
+        return Patterns.compute(Patterns.pack(guess), Patterns.pack(target), guess.length());
+    }
+
+    /**
+     * Compute the feedback string that would result from guessing 'guess' when 'target' is the answer.
+     *
+     * @param guess  the word to guess, in the {@link Alphabet#latin() Latin alphabet}
+     * @param target the target word, as long as the guess
+     * @return the feedback, composed of 'B', 'Y' and 'G'
+     */
+    public static String feedback(String guess, String target) {
+        return Patterns.decode(Patterns.compute(guess, target), guess.length());
+    }
+
+    /**
+     * Pack a word of the {@link Alphabet#latin() Latin alphabet}.
+     *
+     * @param word a word of 1 to {@value #MAX_WORD_LENGTH} letters
+     * @return the packed word
+     * @see Alphabet#pack(CharSequence)
+     */
+    public static long pack(CharSequence word) {
+        return Alphabet.latin().pack(word);
+    }
+
+    /**
+     * Compute the encoded feedback pattern that would result from guessing 'guess' when 'target' is the answer, with
+     * the same rules as {@link #compute(char[], char[])}. Green positions are found by comparing all lanes at once;
+     * each other guess letter is then compared with every target lane at once and consumes the leftmost unmatched
+     * occurrence, if any.
+     *
+     * @param guess  the packed guessed word
+     * @param target the packed target word
+     * @param length the length of both words
+     * @return the encoded pattern
+     */
+    public static int compute(long guess, long target, int length) {
+        final long green = Patterns.zeroLanes(guess ^ target);
+        long unmatched = ~green & LANE_FLAGS;
+        int code = 0;
+        for (int i = 0; i < length; i++) {
+            final int shift = i * LANE_BITS;
+            final long isGreen = (green >>> (shift + LANE_BITS - 1)) & 1;
+            final long letter = (guess >>> shift) & LETTER_MASK;
+            // Lanes of the target holding this letter and not matched yet; none if this position is green
+            final long matches = Patterns.zeroLanes(target ^ (letter * LANE_ONES)) & unmatched & (isGreen - 1);
+            final long leftmost = matches & -matches;
+            unmatched ^= leftmost;
+            code = code * 3 + (int) ((isGreen << 1) + ((leftmost | -leftmost) >>> 63));
+        }
+        return code;
+    }
+
+    /**
+     * Compute the encoded feedback patterns of one guess against a block of targets, for words of up to
+     * {@value #MAX_BYTE_WORD_LENGTH} letters.
+     *
+     * @param guess    the packed guessed word
+     * @param targets  the packed target words
+     * @param length   the length of the words
+     * @param patterns the array to store the patterns in, in target order
+     * @param offset   the index of the first pattern in the array
+     */
+    public static void compute(long guess, long[] targets, int length, byte[] patterns, int offset) {
+        if (length == DEFAULT_WORD_LENGTH) {
+            // A constant length lets the compiler unroll the positions of the common case
+            for (int i = 0; i < targets.length; i++) {
+                patterns[offset + i] = (byte) Patterns.compute(guess, targets[i], DEFAULT_WORD_LENGTH);
+            }
+        } else {
+            for (int i = 0; i < targets.length; i++) {
+                patterns[offset + i] = (byte) Patterns.compute(guess, targets[i], length);
+            }
+        }
+    }
+
+    /**
+     * Compute the encoded feedback patterns of one guess against a block of targets, for words of any length.
+     *
+     * @param guess    the packed guessed word
+     * @param targets  the packed target words
+     * @param length   the length of the words
+     * @param patterns the array to store the patterns in, in target order
+     * @param offset   the index of the first pattern in the array
+     */
+    public static void compute(long guess, long[] targets, int length, short[] patterns, int offset) {
+        for (int i = 0; i < targets.length; i++) {
+            patterns[offset + i] = (short) Patterns.compute(guess, targets[i], length);
+        }
+    }
+
+    /**
+     * @param packed   a packed word
+     * @param position a letter position
+     * @return the code of the letter at the position
+     */
+    static int letter(long packed, int position) {
+        return (int) (packed >>> (position * LANE_BITS)) & LETTER_MASK;
+    }
+
+    /**
+     * @param packed a packed word
+     * @param letter the code of a letter
+     * @return the number of times the letter occurs in the word
+     */
+    static int count(long packed, int letter) {
+        return Long.bitCount(Patterns.zeroLanes(packed ^ (letter * LANE_ONES)));
+    }
+
+    /**
+     * Flag the lanes of a packed value that are zero.
+     *
+     * @param value the packed value
+     * @return the flag bit of each zero lane
+     */
+    private static long zeroLanes(long value) {
+        // Adding the low bits of a lane to all ones carries into its flag bit unless they are all zero
+        return ~(((value & LANE_LOW_BITS) + LANE_LOW_BITS) | value) & LANE_FLAGS;
+    }
+
+    /**
+     * Encode a feedback string composed of 'B', 'Y' and 'G'.
+     *
+     * @param feedback the feedback string, of 1 to {@value #MAX_WORD_LENGTH} characters
+     * @return the encoded pattern
+     */
+    public static int encode(String feedback) {
+        Patterns.checkLength(feedback.length());
+        int code = 0;
+        for (int i = 0; i < feedback.length(); i++) {
+            final int digit = switch (feedback.charAt(i)) {
+                case 'B' -> 0;
+                case 'Y' -> 1;
+                case 'G' -> 2;
+                default -> throw new IllegalArgumentException("Invalid feedback character: '" + feedback + '\'');
+            };
+            code = code * 3 + digit;
+        }
+        return code;
+    }
+
+    /**
+     * Decode an encoded pattern back into a feedback string composed of 'B', 'Y' and 'G'.
+     *
+     * @param code   the encoded pattern
+     * @param length the word length
+     * @return the feedback string
+     */
+    public static String decode(int code, int length) {
+        final char[] feedback = new char[length];
+        for (int i = length - 1; i >= 0; i--) {
+            feedback[i] = "BYG".charAt(code % 3);
+            code /= 3;
+        }
+        return new String(feedback);
+    }
+}
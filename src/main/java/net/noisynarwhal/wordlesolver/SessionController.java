@@ -0,0 +1,69 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("${api.base-path}/sessions")
+public class SessionController {
+    private final VersionConfig versionConfig;
+    private final SolverService solverService;
+    private final GameSessions gameSessions;
+
+    @Autowired
+    public SessionController(VersionConfig versionConfig, SolverService solverService, GameSessions gameSessions) {
+        this.versionConfig = versionConfig;
+        this.solverService = solverService;
+        this.gameSessions = gameSessions;
+    }
+
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Map<String, Object> create(@RequestParam(required = false) String dictionary,
+                                      @RequestParam(defaultValue = "false") boolean hardMode) {
+        final GameSession session = this.gameSessions.create(dictionary, hardMode);
+        return this.state(session.getId(), session.getSnapshot());
+    }
+
+    @GetMapping(
+            path = "/{sessionId}",
+            produces = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Map<String, Object> get(@PathVariable String sessionId) {
+        return this.state(sessionId, this.gameSessions.get(sessionId).getSnapshot());
+    }
+
+    @PostMapping(
+            path = "/{sessionId}/guesses",
+            produces = MediaType.APPLICATION_JSON_VALUE,
+            consumes = MediaType.APPLICATION_JSON_VALUE
+    )
+    public Map<String, Object> guess(@PathVariable String sessionId, @RequestBody Guess guess) {
+        return this.state(sessionId, this.gameSessions.get(sessionId).addGuess(guess, this.solverService::update));
+    }
+
+    @DeleteMapping(path = "/{sessionId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable String sessionId) {
+        this.gameSessions.remove(sessionId);
+    }
+
+    private Map<String, Object> state(String sessionId, GameSession.Snapshot snapshot) {
+        final List<Suggestion> suggestions = this.solverService.suggest(snapshot.state());
+
+        return Map.of(
+                "sessionId", sessionId,
+                "guesses", snapshot.guesses(),
+                "hardMode", snapshot.state().isHardMode(),
+                "suggestions", suggestions,
+                "timestamp", System.currentTimeMillis(),
+                "count", suggestions.size(),
+                "apiVersion", this.versionConfig.getVersion()
+        );
+    }
+}
@@ -0,0 +1,10 @@
+package net.noisynarwhal.wordlesolver;
+
+/**
+ * Thrown when a game session does not exist or has expired.
+ */
+public class SessionNotFoundException extends RuntimeException {
+    public SessionNotFoundException(String sessionId) {
+        super("Session not found: '" + sessionId + '\'');
+    }
+}
@@ -0,0 +1,275 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Plays the solver against a set of answers and reports how many guesses it needs. Each game always plays the same
+ * opener and then the top suggestion for its state. Games run in parallel and share one immutable word list and one
+ * stateless scorer; the decision for each state is computed once and reused by every game that reaches it.
+ */
+public class Simulator {
+    public static final String CLI_FLAG = "--simulate";
+    public static final int MAX_TURNS = 6;
+    private static final int TURN_LIMIT = 20;
+    private static final int SLOWEST_STATES = 10;
+    private static final Logger logger = LoggerFactory.getLogger(Simulator.class);
+
+    private final WordList wordList;
+    private final String opener;
+    private final ForkJoinPool pool;
+    private final EntropyScorer scorer = new EntropyScorer();
+    private final Map<CandidateSet, Decision> decisions = new ConcurrentHashMap<>();
+
+    /**
+     * @param wordList the word list the solver plays with
+     * @param opener   the first guess of every game, or null to open with the solver's top suggestion
+     * @param pool     the pool to play games on
+     */
+    public Simulator(WordList wordList, String opener, ForkJoinPool pool) {
+        this.wordList = wordList;
+        this.opener = opener == null ? null : opener.trim().toUpperCase();
+        this.pool = pool;
+    }
+
+    /**
+     * The guess chosen for a state, and how long it took to choose.
+     */
+    private record Decision(String guess, List<Guess> history, int candidates, long nanos) {
+    }
+
+    /**
+     * A state that was expensive to score.
+     *
+     * @param history    the guesses of the first game that reached the state
+     * @param candidates the number of possible answers in the state
+     * @param millis     the time taken to rank suggestions for the state
+     */
+    public record SlowState(List<Guess> history, int candidates, double millis) {
+    }
+
+    /**
+     * The outcome of a simulation.
+     *
+     * @param games         the number of games played
+     * @param histogram     the number of games solved in each number of guesses (index 0 counts unsolved games)
+     * @param elapsedMillis the wall-clock time of the simulation
+     * @param slowestStates the most expensive states to score, slowest first
+     */
+    public record Report(int games, int[] histogram, double elapsedMillis, List<SlowState> slowestStates) {
+
+        /**
+         * @return the number of games not solved within {@link #MAX_TURNS} guesses
+         */
+        public int failures() {
+            int failures = this.histogram[0];
+            for (int guesses = MAX_TURNS + 1; guesses < this.histogram.length; guesses++) {
+                failures += this.histogram[guesses];
+            }
+            return failures;
+        }
+
+        /**
+         * @return the average number of guesses of the solved games
+         */
+        public double averageGuesses() {
+            long total = 0;
+            int solved = 0;
+            for (int guesses = 1; guesses < this.histogram.length; guesses++) {
+                total += (long) guesses * this.histogram[guesses];
+                solved += this.histogram[guesses];
+            }
+            return solved == 0 ? 0.0 : (double) total / solved;
+        }
+
+        /**
+         * @return the throughput of the simulation
+         */
+        public double gamesPerSecond() {
+            return this.elapsedMillis == 0 ? 0.0 : this.games * 1000.0 / this.elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder report = new StringBuilder();
+            report.append(String.format("Games: %d, average guesses: %.4f, failures: %d (%.2f%%), %.1f games/s%n",
+                    this.games, this.averageGuesses(), this.failures(),
+                    this.games == 0 ? 0.0 : 100.0 * this.failures() / this.games, this.gamesPerSecond()));
+            for (int guesses = 1; guesses < this.histogram.length; guesses++) {
+                if (this.histogram[guesses] > 0) {
+                    report.append(String.format("  %2d guesses: %d%n", guesses, this.histogram[guesses]));
+                }
+            }
+            if (this.histogram[0] > 0) {
+                report.append(String.format("  unsolved: %d%n", this.histogram[0]));
+            }
+            report.append("Slowest states:").append(System.lineSeparator());
+            for (final SlowState state : this.slowestStates) {
+                report.append(String.format("  %8.2f ms, %5d candidates: %s%n",
+                        state.millis(), state.candidates(), state.history()));
+            }
+            return report.toString();
+        }
+    }
+
+    /**
+     * Play one game against each answer.
+     *
+     * @param answers the answers to play against; each must be in the word list
+     * @return the report
+     */
+    public Report run(List<String> answers) {
+        final int[] answerIds = this.answerIds(answers);
+
+        final long start = System.nanoTime();
+        final int[] guesses = this.pool.submit(() ->
+                IntStream.of(answerIds).parallel().map(this::play).toArray()).join();
+        final double elapsedMillis = (System.nanoTime() - start) / 1e6;
+
+        final int[] histogram = new int[TURN_LIMIT + 1];
+        for (final int count : guesses) {
+            histogram[count]++;
+        }
+        final List<SlowState> slowestStates = this.decisions.values().stream()
+                .sorted(Comparator.comparingLong(Decision::nanos).reversed())
+                .limit(SLOWEST_STATES)
+                .map(decision -> new SlowState(decision.history(), decision.candidates(), decision.nanos() / 1e6))
+                .toList();
+
+        return new Report(answerIds.length, histogram, elapsedMillis, slowestStates);
+    }
+
+    /**
+     * Play one game against each answer and keep the guesses, as a source of the histories real games send.
+     *
+     * @param answers the answers to play against; each must be in the word list
+     * @return the guesses of each game in the order of the answers, ending with the one that solved it unless the
+     * game was not solved within the turn limit
+     */
+    public List<List<Guess>> games(List<String> answers) {
+        final int[] answerIds = this.answerIds(answers);
+        return this.pool.submit(() -> IntStream.of(answerIds).parallel().mapToObj(this::game).toList()).join();
+    }
+
+    private int[] answerIds(List<String> answers) {
+        return answers.stream().mapToInt(answer -> {
+            final int id = this.wordList.id(answer.trim().toUpperCase());
+            if (id < 0) {
+                throw new IllegalArgumentException("Answer is not in the word list: '" + answer + '\'');
+            }
+            return id;
+        }).toArray();
+    }
+
+    /**
+     * Play one game.
+     *
+     * @param answerId the ID of the answer
+     * @return the number of guesses needed, or 0 if the game was not solved within the turn limit
+     */
+    private int play(int answerId) {
+        final List<Guess> game = this.game(answerId);
+        final Guess last = game.isEmpty() ? null : game.get(game.size() - 1);
+        return last != null && Patterns.encode(last.feedback()) == Patterns.allGreen(this.wordList.length())
+                ? game.size() : 0;
+    }
+
+    /**
+     * Play one game.
+     *
+     * @param answerId the ID of the answer
+     * @return the guesses and their feedback, ending with the one that solved the game if it was solved
+     */
+    private List<Guess> game(int answerId) {
+        SolverState state = SolverState.initial(this.wordList);
+        final List<Guess> history = new ArrayList<>();
+        final int length = this.wordList.length();
+
+        for (int turn = 1; turn <= TURN_LIMIT; turn++) {
+            final String guess = turn == 1 && this.opener != null ? this.opener : this.decide(state, history);
+            if (guess == null) {
+                break;
+            }
+            final int pattern = Patterns.compute(this.wordList.pack(guess), this.wordList.packed(answerId), length);
+            final Guess feedback = new Guess(guess, Patterns.decode(pattern, length));
+            history.add(feedback);
+            if (pattern == Patterns.allGreen(length)) {
+                break;
+            }
+            state = state.update(feedback);
+        }
+        return history;
+    }
+
+    private String decide(SolverState state, List<Guess> history) {
+        final CandidateSet possibleWords = state.possibleWords();
+        Decision decision = this.decisions.get(possibleWords);
+        if (decision == null) {
+            final long start = System.nanoTime();
+            final SortedSet<Suggestion> suggestions = this.scorer.score(state);
+            final String guess = suggestions.isEmpty() ? null : suggestions.first().word();
+            decision = new Decision(guess, List.copyOf(history), possibleWords.cardinality(),
+                    System.nanoTime() - start);
+            final Decision existing = this.decisions.putIfAbsent(possibleWords, decision);
+            if (existing != null) {
+                decision = existing;
+            }
+        }
+        return decision.guess();
+    }
+
+    /**
+     * Run a simulation from the command line and print the report. Options:
+     * <ul>
+     *     <li>{@code --opener=WORD}: the first guess (default: the solver's top suggestion)</li>
+     *     <li>{@code --answers=FILE}: a file of answers, one per line (default: the whole word list)</li>
+     *     <li>{@code --limit=N}: only play the first N answers</li>
+     *     <li>{@code --threads=N}: the number of games played at once (default: available processors)</li>
+     * </ul>
+     *
+     * @param args the command line arguments
+     * @throws IOException if the answers file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        String opener = null;
+        List<String> answers = WordList.getDefault().words();
+        int limit = Integer.MAX_VALUE;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (final String arg : args) {
+            if (arg.startsWith("--opener=")) {
+                opener = arg.substring("--opener=".length());
+            } else if (arg.startsWith("--answers=")) {
+                answers = Files.readAllLines(Path.of(arg.substring("--answers=".length()))).stream()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty())
+                        .toList();
+            } else if (arg.startsWith("--limit=")) {
+                limit = Integer.parseInt(arg.substring("--limit=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (!arg.equals(CLI_FLAG)) {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            final List<String> played = answers.subList(0, Math.min(limit, answers.size()));
+            logger.info("Simulating {} games with opener {} on {} threads",
+                    played.size(), opener == null ? "(top suggestion)" : opener, threads);
+            final Report report = new Simulator(WordList.getDefault(), opener, pool).run(played);
+            System.out.print(report);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
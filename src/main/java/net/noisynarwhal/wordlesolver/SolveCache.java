@@ -0,0 +1,108 @@
+package net.noisynarwhal.wordlesolver;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * A bounded cache of suggestions keyed by solver state: the word list and the set of surviving candidates. Different
+ * guess histories that narrow a dictionary to the same candidates share one entry. Hit and miss counts are published
+ * as the {@code cache.*} metrics of the {@code solve} cache.
+ */
+@Component
+public class SolveCache implements MeterBinder {
+    public static final String CACHE_NAME = "solve";
+    private final AsyncCache<SolverState, List<Suggestion>> cache;
+
+    public SolveCache(SolverConfig solverConfig) {
+        final SolverConfig.Cache config = solverConfig.getCache();
+        final Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .recordStats();
+        if (config.getTtl() != null && !config.getTtl().isZero() && !config.getTtl().isNegative()) {
+            builder.expireAfterWrite(config.getTtl());
+        }
+        this.cache = builder.buildAsync();
+    }
+
+    /**
+     * Look up the suggestions for a state without computing them. The lookup counts as a hit or a miss; a following
+     * {@link #compute} does not count again. Suggestions still being computed are not found.
+     *
+     * @param state the solver state
+     * @return the cached suggestions, if any
+     */
+    public Optional<List<Suggestion>> lookup(SolverState state) {
+        return Optional.ofNullable(this.cache.synchronous().getIfPresent(state));
+    }
+
+    /**
+     * Get the suggestions for a state after a missed {@link #lookup}, computing them unless another thread already
+     * has. Concurrent requests for the state wait for the first one to finish; the computation runs on the calling
+     * thread outside the cache's locks, so requests for other states never wait for it.
+     *
+     * @param state   the solver state
+     * @param compute the function computing the suggestions
+     * @return the cached or computed suggestions
+     */
+    public List<Suggestion> compute(SolverState state, Function<SolverState, List<Suggestion>> compute) {
+        final CompletableFuture<List<Suggestion>> created = new CompletableFuture<>();
+        final CompletableFuture<List<Suggestion>> existing = this.cache.asMap().putIfAbsent(state, created);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            final List<Suggestion> suggestions = compute.apply(state);
+            created.complete(suggestions);
+            return suggestions;
+        } catch (RuntimeException | Error e) {
+            // A failed future is dropped from the cache, so the next request computes again
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drop the suggestions of every state of a word list.
+     *
+     * @param wordList the word list
+     */
+    public void invalidate(WordList wordList) {
+        this.cache.asMap().keySet().removeIf(state -> state.wordList() == wordList);
+    }
+
+    /**
+     * Drop the suggestions of a dictionary that is no longer served.
+     */
+    @EventListener
+    public void onDictionaryReplaced(DictionaryReplacedEvent event) {
+        this.invalidate(event.dictionary().wordList());
+    }
+
+    /**
+     * @return the hit and miss statistics of the cache
+     */
+    public CacheStats stats() {
+        return this.cache.synchronous().stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, this.cache.synchronous(), CACHE_NAME);
+    }
+}
@@ -0,0 +1,120 @@
+package net.noisynarwhal.wordlesolver;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the number of states scored at once. At most {@code solver.admission.max-concurrent} requests score at a
+ * time (the scoring parallelism when that is not positive), at most {@code solver.admission.max-queued} more wait
+ * for a turn, and none waits longer than {@code solver.admission.queue-timeout}. Requests beyond those limits fail
+ * fast with a {@link SolverOverloadedException} instead of adding to the latency of every request behind them.
+ * Cheap requests, such as opening book and cache hits, never pass through admission. The number of requests scoring
+ * and waiting are published as the {@code solver.admission.active} and {@code solver.admission.queued} gauges.
+ */
+@Component
+public class SolverAdmission implements MeterBinder {
+    private final Semaphore permits;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long queueTimeoutNanos;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    public SolverAdmission(SolverConfig solverConfig) {
+        final SolverConfig.Admission config = solverConfig.getAdmission();
+        this.maxConcurrent = config.getMaxConcurrent() > 0
+                ? config.getMaxConcurrent()
+                : solverConfig.effectiveParallelism();
+        this.maxQueued = Math.max(0, config.getMaxQueued());
+        final Duration queueTimeout = config.getQueueTimeout() == null ? Duration.ZERO : config.getQueueTimeout();
+        this.queueTimeoutNanos = Math.max(0, queueTimeout.toNanos());
+        this.permits = new Semaphore(this.maxConcurrent, true);
+    }
+
+    /**
+     * A turn to score. Closing the permit releases it; closing it again has no effect.
+     */
+    public final class Permit implements AutoCloseable {
+        private final AtomicInteger open = new AtomicInteger(1);
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (this.open.compareAndSet(1, 0)) {
+                SolverAdmission.this.permits.release();
+            }
+        }
+    }
+
+    /**
+     * Wait for a turn to score.
+     *
+     * @return the permit, to be closed when scoring is done
+     * @throws SolverOverloadedException if the queue is full or the wait exceeds the queue timeout
+     */
+    public Permit acquire() {
+        try {
+            // A zero timeout takes a free permit without barging ahead of queued requests
+            if (this.permits.tryAcquire(0, TimeUnit.NANOSECONDS)) {
+                return new Permit();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SolverOverloadedException("Interrupted while waiting to be scored", false);
+        }
+        if (this.queued.incrementAndGet() > this.maxQueued) {
+            this.queued.decrementAndGet();
+            throw new SolverOverloadedException("Too many requests are waiting to be scored", true);
+        }
+        try {
+            if (!this.permits.tryAcquire(this.queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new SolverOverloadedException("Timed out waiting to be scored", false);
+            }
+            return new Permit();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SolverOverloadedException("Interrupted while waiting to be scored", false);
+        } finally {
+            this.queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of requests that may score at once
+     */
+    public int getMaxConcurrent() {
+        return this.maxConcurrent;
+    }
+
+    /**
+     * @return the number of requests currently scoring
+     */
+    public int getActive() {
+        return this.maxConcurrent - this.permits.availablePermits();
+    }
+
+    /**
+     * @return the number of requests currently waiting for a turn
+     */
+    public int getQueued() {
+        return this.queued.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("solver.admission.active", this, SolverAdmission::getActive)
+                .description("Requests scoring a state")
+                .register(registry);
+        Gauge.builder("solver.admission.queued", this, SolverAdmission::getQueued)
+                .description("Requests waiting for a turn to score")
+                .register(registry);
+    }
+}
@@ -0,0 +1,263 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+@ConfigurationProperties(prefix = "solver")
+public class SolverConfig {
+    private static final Logger logger = LoggerFactory.getLogger(SolverConfig.class);
+    private int parallelism;
+    private String dictionaryFile;
+    private String decisionTreeFile;
+    private final Cache cache = new Cache();
+    private final Sessions sessions = new Sessions();
+    private final Admission admission = new Admission();
+    private final Lookahead lookahead = new Lookahead();
+    private final Dictionaries dictionaries = new Dictionaries();
+
+    public int getParallelism() {
+        return this.parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public String getDictionaryFile() {
+        return this.dictionaryFile;
+    }
+
+    public void setDictionaryFile(String dictionaryFile) {
+        this.dictionaryFile = dictionaryFile;
+    }
+
+    public String getDecisionTreeFile() {
+        return this.decisionTreeFile;
+    }
+
+    public void setDecisionTreeFile(String decisionTreeFile) {
+        this.decisionTreeFile = decisionTreeFile;
+    }
+
+    public Cache getCache() {
+        return this.cache;
+    }
+
+    public Sessions getSessions() {
+        return this.sessions;
+    }
+
+    public Admission getAdmission() {
+        return this.admission;
+    }
+
+    public Lookahead getLookahead() {
+        return this.lookahead;
+    }
+
+    public Dictionaries getDictionaries() {
+        return this.dictionaries;
+    }
+
+    /**
+     * The pool used to score suggestions. Its size is {@code solver.parallelism}, or the number of available
+     * processors when that is not positive.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool scoringPool() {
+        return new ForkJoinPool(this.effectiveParallelism());
+    }
+
+    /**
+     * @return {@code solver.parallelism}, or the number of available processors when that is not positive
+     */
+    public int effectiveParallelism() {
+        return this.parallelism > 0 ? this.parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * The word list served by the API. It is memory-mapped from {@code solver.dictionary-file} when that is set, and
+     * falls back to the default word list when the file is missing or invalid.
+     */
+    @Bean
+    public WordList wordList() {
+        if (this.dictionaryFile != null && !this.dictionaryFile.isBlank()) {
+            try {
+                return DictionaryFile.open(Path.of(this.dictionaryFile));
+            } catch (IOException | IllegalStateException e) {
+                logger.warn("Ignoring dictionary file {}: {}", this.dictionaryFile, e.getMessage());
+            }
+        }
+        return WordList.getDefault();
+    }
+
+    /**
+     * The precomputed suggestions for the first two turns of the served word list.
+     */
+    @Bean
+    public OpeningBook openingBook() {
+        return OpeningBook.load(this.wordList());
+    }
+
+    /**
+     * The precomputed game tree of the served word list, loaded from {@code solver.decision-tree-file}. The tree is
+     * empty when that is not set, or when the file is missing or invalid.
+     */
+    @Bean
+    public DecisionTree decisionTree() {
+        if (this.decisionTreeFile == null || this.decisionTreeFile.isBlank()) {
+            return DecisionTree.empty(this.wordList());
+        }
+        return DecisionTree.load(Path.of(this.decisionTreeFile), this.wordList());
+    }
+
+    public static class Cache {
+        private long maximumSize = 10_000;
+        private Duration ttl = Duration.ZERO;
+
+        public long getMaximumSize() {
+            return this.maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return this.ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class Sessions {
+        private long maximumSize = 100_000;
+        private Duration ttl = Duration.ofMinutes(30);
+
+        public long getMaximumSize() {
+            return this.maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return this.ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+
+    public static class Admission {
+        private int maxConcurrent;
+        private int maxQueued = 64;
+        private Duration queueTimeout = Duration.ofSeconds(2);
+
+        public int getMaxConcurrent() {
+            return this.maxConcurrent;
+        }
+
+        public void setMaxConcurrent(int maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public int getMaxQueued() {
+            return this.maxQueued;
+        }
+
+        public void setMaxQueued(int maxQueued) {
+            this.maxQueued = maxQueued;
+        }
+
+        public Duration getQueueTimeout() {
+            return this.queueTimeout;
+        }
+
+        public void setQueueTimeout(Duration queueTimeout) {
+            this.queueTimeout = queueTimeout;
+        }
+    }
+
+    public static class Lookahead {
+        private int depth = 2;
+        private int breadth = 10;
+        private Duration budget = Duration.ofMillis(500);
+        private Duration maxBudget = Duration.ofSeconds(5);
+        private long memoSize = 100_000;
+
+        public int getDepth() {
+            return this.depth;
+        }
+
+        public void setDepth(int depth) {
+            this.depth = depth;
+        }
+
+        public int getBreadth() {
+            return this.breadth;
+        }
+
+        public void setBreadth(int breadth) {
+            this.breadth = breadth;
+        }
+
+        public Duration getBudget() {
+            return this.budget;
+        }
+
+        public void setBudget(Duration budget) {
+            this.budget = budget;
+        }
+
+        public Duration getMaxBudget() {
+            return this.maxBudget;
+        }
+
+        public void setMaxBudget(Duration maxBudget) {
+            this.maxBudget = maxBudget;
+        }
+
+        public long getMemoSize() {
+            return this.memoSize;
+        }
+
+        public void setMemoSize(long memoSize) {
+            this.memoSize = memoSize;
+        }
+    }
+
+    public static class Dictionaries {
+        private String directory;
+        private Duration reloadInterval = Duration.ZERO;
+
+        public String getDirectory() {
+            return this.directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getReloadInterval() {
+            return this.reloadInterval;
+        }
+
+        public void setReloadInterval(Duration reloadInterval) {
+            this.reloadInterval = reloadInterval;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package net.noisynarwhal.wordlesolver;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The meters of the solver hot path. Every meter is registered once up front, so recording is a lookup-free update
+ * of a timer, summary or counter:
+ * <ul>
+ *     <li>{@code solver.stage}: a timer per stage of a request, tagged {@code stage}</li>
+ *     <li>{@code solver.candidates}: the number of possible answers before and after applying feedback, tagged
+ *     {@code phase}</li>
+ *     <li>{@code solver.words.scored}: the number of words whose entropy is computed for a scored state</li>
+ *     <li>{@code solver.suggestions}: where each set of suggestions came from, tagged {@code source}</li>
+ * </ul>
+ * Cache hits and misses are published separately by {@link SolveCache}.
+ */
+@Component
+public class SolverMetrics {
+    public static final String STAGE_FILTER = "filter";
+    public static final String STAGE_LOOKUP = "lookup";
+    public static final String STAGE_ADMISSION = "admission";
+    public static final String STAGE_SCORE = "score";
+    public static final String STAGE_SERIALIZE = "serialize";
+    public static final String SOURCE_TREE = "tree";
+    public static final String SOURCE_BOOK = "book";
+    public static final String SOURCE_CACHE = "cache";
+    public static final String SOURCE_SCORED = "scored";
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> stages;
+    private final DistributionSummary candidatesBefore;
+    private final DistributionSummary candidatesAfter;
+    private final DistributionSummary wordsScored;
+    private final Map<String, Counter> sources;
+
+    /**
+     * @param registry the registry to publish to; a private in-memory registry is used when there is none
+     */
+    @Autowired
+    public SolverMetrics(ObjectProvider<MeterRegistry> registry) {
+        this(registry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    public SolverMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.stages = Map.of(
+                STAGE_FILTER, this.stage(STAGE_FILTER, "Narrowing the possible answers with the guesses"),
+                STAGE_LOOKUP, this.stage(STAGE_LOOKUP,
+                        "Looking a state up in the decision tree, the opening book and the cache"),
+                STAGE_ADMISSION, this.stage(STAGE_ADMISSION, "Waiting for a turn to score"),
+                STAGE_SCORE, this.stage(STAGE_SCORE, "Ranking the suggestions for a state"),
+                STAGE_SERIALIZE, this.stage(STAGE_SERIALIZE, "Writing the response body")
+        );
+        this.candidatesBefore = this.candidates("before");
+        this.candidatesAfter = this.candidates("after");
+        this.wordsScored = DistributionSummary.builder("solver.words.scored")
+                .description("Words whose entropy was computed for a scored state")
+                .baseUnit("words")
+                .register(registry);
+        this.sources = Map.of(
+                SOURCE_TREE, this.source(SOURCE_TREE),
+                SOURCE_BOOK, this.source(SOURCE_BOOK),
+                SOURCE_CACHE, this.source(SOURCE_CACHE),
+                SOURCE_SCORED, this.source(SOURCE_SCORED)
+        );
+    }
+
+    private Timer stage(String stage, String description) {
+        return Timer.builder("solver.stage")
+                .description(description)
+                .tag("stage", stage)
+                .register(this.registry);
+    }
+
+    private DistributionSummary candidates(String phase) {
+        return DistributionSummary.builder("solver.candidates")
+                .description("Possible answers before and after a guess")
+                .baseUnit("words")
+                .tag("phase", phase)
+                .register(this.registry);
+    }
+
+    private Counter source(String source) {
+        return Counter.builder("solver.suggestions")
+                .description("Sets of suggestions served, by where they came from")
+                .tag("source", source)
+                .register(this.registry);
+    }
+
+    /**
+     * Time a stage.
+     *
+     * @param stage the stage, one of the {@code STAGE_*} constants
+     * @param work  the work of the stage
+     * @return the result of the work
+     */
+    public <T> T time(String stage, Supplier<T> work) {
+        return this.stages.get(stage).record(work);
+    }
+
+    /**
+     * Record the number of possible answers before and after applying the feedback of one or more guesses.
+     *
+     * @param before the number before the feedback
+     * @param after  the number after the feedback
+     */
+    public void recordUpdate(int before, int after) {
+        this.candidatesBefore.record(before);
+        this.candidatesAfter.record(after);
+    }
+
+    /**
+     * @param words the number of words whose entropy was computed for a scored state
+     */
+    public void recordWordsScored(int words) {
+        this.wordsScored.record(words);
+    }
+
+    /**
+     * @param source where a set of suggestions came from, one of the {@code SOURCE_*} constants
+     */
+    public void recordSource(String source) {
+        this.sources.get(source).increment();
+    }
+
+    /**
+     * @return the registry the meters are published to
+     */
+    MeterRegistry registry() {
+        return this.registry;
+    }
+}
@@ -0,0 +1,21 @@
+package net.noisynarwhal.wordlesolver;
+
+/**
+ * Thrown when a request that needs entropy scoring is turned away by {@link SolverAdmission}: either the admission
+ * queue is full, or the request waited longer than the queue timeout.
+ */
+public class SolverOverloadedException extends RuntimeException {
+    private final boolean queueFull;
+
+    public SolverOverloadedException(String message, boolean queueFull) {
+        super(message);
+        this.queueFull = queueFull;
+    }
+
+    /**
+     * @return true if the request was rejected without waiting because the queue was full, false if it timed out
+     */
+    public boolean isQueueFull() {
+        return this.queueFull;
+    }
+}
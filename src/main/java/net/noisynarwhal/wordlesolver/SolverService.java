@@ -0,0 +1,348 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Creates solvers for the served dictionaries and ranks their suggestions, serving guess histories that follow the
+ * decision tree by walking it, precomputed states from the opening book and repeated states from the suggestion
+ * cache. Solver states are immutable and the scorer is stateless, so requests share states and scoring work without
+ * locking.
+ * <p>
+ * Requests name their dictionary, or use the default one. The decision tree and the opening book are precomputed for
+ * the default dictionary only; states of other dictionaries are served from the cache or scored. Both assume that any
+ * word may be guessed, so hard mode states are also served from the cache or scored.
+ * <p>
+ * Suggestions are ranked by entropy unless a request selects another {@link SuggestionStrategy} by name. The book and
+ * the cache only hold entropy rankings, so other strategies always search, within a time budget.
+ */
+@Service
+public class SolverService {
+    public static final int MAX_BOARDS = 8;
+    private final Dictionaries dictionaries;
+    private final WordList wordList;
+    private final ForkJoinPool scoringPool;
+    private final EntropyScorer scorer;
+    private final SolveCache solveCache;
+    private final OpeningBook openingBook;
+    private final DecisionTree decisionTree;
+    private final SolverAdmission admission;
+    private final SolverMetrics metrics;
+    private final Map<String, SuggestionStrategy> strategies = new HashMap<>();
+    private final Duration defaultBudget;
+    private final Duration maxBudget;
+
+    public SolverService(SolverConfig solverConfig, Dictionaries dictionaries, ForkJoinPool scoringPool,
+                         SolveCache solveCache, OpeningBook openingBook, DecisionTree decisionTree,
+                         SolverAdmission admission, SolverMetrics metrics, List<SuggestionStrategy> strategies) {
+        this.dictionaries = dictionaries;
+        this.wordList = dictionaries.getDefault().wordList();
+        this.scoringPool = scoringPool;
+        this.scorer = new EntropyScorer(scoringPool, metrics::recordWordsScored);
+        this.solveCache = solveCache;
+        this.openingBook = openingBook;
+        this.decisionTree = decisionTree;
+        this.admission = admission;
+        this.metrics = metrics;
+        this.strategies.put(this.scorer.name(), this.scorer);
+        for (final SuggestionStrategy strategy : strategies) {
+            this.strategies.put(strategy.name(), strategy);
+        }
+        this.defaultBudget = solverConfig.getLookahead().getBudget();
+        this.maxBudget = solverConfig.getLookahead().getMaxBudget();
+    }
+
+    /**
+     * @return a new solver over the default dictionary, scoring on the shared pool
+     */
+    public WordleSolver newSolver() {
+        return new WordleSolver(this.initialState(), this.scorer);
+    }
+
+    /**
+     * @return the state before any guess over the default dictionary
+     */
+    public SolverState initialState() {
+        return this.dictionaries.getDefault().initialState();
+    }
+
+    /**
+     * @param dictionary the name of the dictionary, or null for the default dictionary
+     * @return the state before any guess over the dictionary
+     * @throws IllegalArgumentException if there is no dictionary with the name
+     */
+    public SolverState initialState(String dictionary) {
+        return this.dictionaries.get(dictionary).initialState();
+    }
+
+    /**
+     * @param dictionary the name of the dictionary, or null for the default dictionary
+     * @param hardMode   whether guesses must use every revealed hint
+     * @return the state before any guess over the dictionary
+     * @throws IllegalArgumentException if there is no dictionary with the name
+     */
+    public SolverState initialState(String dictionary, boolean hardMode) {
+        return this.initialState(dictionary).withHardMode(hardMode);
+    }
+
+    /**
+     * Get the best suggestions after a sequence of guesses over the default dictionary.
+     *
+     * @param guesses the guesses made so far, in order
+     * @return the suggestions, ordered by descending entropy
+     */
+    public List<Suggestion> solve(List<Guess> guesses) {
+        return this.solve(this.initialState(), guesses);
+    }
+
+    /**
+     * Get the best suggestions after a sequence of guesses, ranked by the named strategy.
+     *
+     * @param initial  the state before any guess, from {@link #initialState(String, boolean)}
+     * @param guesses  the guesses made so far, in order
+     * @param strategy the name of the strategy, or null for entropy
+     * @param budget   the time the strategy may spend, or null for the configured default
+     * @return the suggestions, best first
+     * @throws IllegalArgumentException if there is no strategy with the name
+     */
+    public List<Suggestion> solve(SolverState initial, List<Guess> guesses, String strategy, Duration budget) {
+        if (strategy == null || strategy.equals(EntropyScorer.NAME)) {
+            return this.solve(initial, guesses);
+        }
+        return this.suggest(this.narrow(initial, guesses), strategy, budget);
+    }
+
+    private List<Suggestion> solve(SolverState initial, List<Guess> guesses) {
+        return this.walk(initial, guesses).orElseGet(() -> this.suggest(this.narrow(initial, guesses)));
+    }
+
+    /**
+     * Get the best suggestions for a guess played on several boards at once, as in Dordle or Quordle. Each board lists
+     * the same guesses with its own feedback, and stops after the guess that solved it. The unsolved boards are
+     * narrowed separately and scored together in one pass (see {@link EntropyScorer#score(List)}) once admitted.
+     *
+     * @param initial the state of each board before any guess, from {@link #initialState(String, boolean)}
+     * @param boards  the guesses made so far on each board, in order
+     * @return the suggestions, ordered by descending summed entropy, or none if every board is solved
+     * @throws IllegalArgumentException  if there are no boards or more than {@value #MAX_BOARDS}, or if the boards do
+     *                                   not list the same guesses
+     * @throws SolverOverloadedException if the request is not admitted
+     */
+    public List<Suggestion> solveBoards(SolverState initial, List<List<Guess>> boards) {
+        final List<SolverState> unsolved = new ArrayList<>(boards.size());
+        for (final List<Guess> board : SolverService.checkBoards(boards)) {
+            final Guess last = board.isEmpty() ? null : board.get(board.size() - 1);
+            if (last == null || !SolverService.solved(last)) {
+                unsolved.add(this.narrow(initial, board));
+            }
+        }
+        if (unsolved.isEmpty()) {
+            return List.of();
+        }
+        try (final SolverAdmission.Permit permit = this.metrics.time(SolverMetrics.STAGE_ADMISSION,
+                this.admission::acquire)) {
+            this.metrics.recordSource(SolverMetrics.SOURCE_SCORED);
+            return this.metrics.time(SolverMetrics.STAGE_SCORE, () -> List.copyOf(this.scorer.score(unsolved)));
+        }
+    }
+
+    /**
+     * Check that every board lists the same guesses, a board only stopping early after the guess that solved it.
+     */
+    private static List<List<Guess>> checkBoards(List<List<Guess>> boards) {
+        if (boards.isEmpty() || boards.size() > MAX_BOARDS) {
+            throw new IllegalArgumentException("Expected 1 to " + MAX_BOARDS + " boards: " + boards.size());
+        }
+        final List<Guess> longest = Collections.max(boards, Comparator.comparingInt(List::size));
+        for (int board = 0; board < boards.size(); board++) {
+            final List<Guess> guesses = boards.get(board);
+            for (int turn = 0; turn < guesses.size(); turn++) {
+                final Guess guess = guesses.get(turn);
+                if (!guess.word().equals(longest.get(turn).word())) {
+                    throw new IllegalArgumentException("Board " + (board + 1) + " has guess " + (turn + 1) + " '"
+                            + guess.word() + "' instead of '" + longest.get(turn).word() + '\'');
+                }
+                if (turn < guesses.size() - 1 && SolverService.solved(guess)) {
+                    throw new IllegalArgumentException("Board " + (board + 1) + " has feedback after being solved"
+                            + " by guess " + (turn + 1));
+                }
+            }
+            final boolean solved = !guesses.isEmpty() && SolverService.solved(guesses.get(guesses.size() - 1));
+            if (guesses.size() < longest.size() && !solved) {
+                throw new IllegalArgumentException("Board " + (board + 1) + " is missing feedback for guess "
+                        + (guesses.size() + 1));
+            }
+        }
+        return boards;
+    }
+
+    /**
+     * @return whether the feedback of a guess shows it was the answer
+     */
+    private static boolean solved(Guess guess) {
+        return Patterns.encode(guess.feedback()) == Patterns.allGreen(guess.feedback().length());
+    }
+
+    /**
+     * Apply the feedback from a guess to a state, recording the number of possible answers before and after.
+     *
+     * @param state the state
+     * @param guess the feedback from the guess
+     * @return the narrowed state
+     */
+    public SolverState update(SolverState state, Guess guess) {
+        final SolverState narrowed = state.update(guess);
+        this.metrics.recordUpdate(state.possibleWords().cardinality(), narrowed.possibleWords().cardinality());
+        return narrowed;
+    }
+
+    private SolverState narrow(SolverState initial, List<Guess> guesses) {
+        return this.metrics.time(SolverMetrics.STAGE_FILTER, () -> {
+            final SolverState narrowed = initial.update(guesses);
+            this.metrics.recordUpdate(initial.possibleWords().cardinality(), narrowed.possibleWords().cardinality());
+            return narrowed;
+        });
+    }
+
+    /**
+     * Get the best suggestions after a sequence of guesses on the scoring pool. The game does not pass through
+     * admission on its own: the caller admits the work it submits with {@link #admit()}.
+     *
+     * @param initial the state before any guess, from {@link #initialState(String)}
+     * @param guesses the guesses made so far, in order
+     * @return the future suggestions
+     */
+    public CompletableFuture<List<Suggestion>> solveAsync(SolverState initial, List<Guess> guesses) {
+        return CompletableFuture.supplyAsync(() -> this.walk(initial, guesses).orElseGet(() -> {
+            final SolverState state = this.narrow(initial, guesses);
+            return this.lookup(state).orElseGet(() -> this.score(state));
+        }), this.scoringPool);
+    }
+
+    /**
+     * Wait for a turn to score, for work that scores many states under one admission.
+     *
+     * @return the permit, to be closed when the work is done
+     * @throws SolverOverloadedException if the request is not admitted
+     */
+    public SolverAdmission.Permit admit() {
+        return this.admission.acquire();
+    }
+
+    /**
+     * @return the number of threads scoring suggestions
+     */
+    public int getParallelism() {
+        return this.scoringPool.getParallelism();
+    }
+
+    /**
+     * Get the best suggestions for the current state of a solver.
+     *
+     * @param solver the solver
+     * @return the suggestions, ordered by descending entropy
+     */
+    public List<Suggestion> suggest(WordleSolver solver) {
+        return this.suggest(solver.getState());
+    }
+
+    /**
+     * Get the best suggestions for a state. States in the opening book or the cache are served at once; others are
+     * scored once admitted.
+     *
+     * @param state the state
+     * @return the suggestions, ordered by descending entropy
+     * @throws SolverOverloadedException if the state must be scored and the request is not admitted
+     */
+    public List<Suggestion> suggest(SolverState state) {
+        final Optional<List<Suggestion>> known = this.lookup(state);
+        if (known.isPresent()) {
+            return known.get();
+        }
+        try (final SolverAdmission.Permit permit = this.metrics.time(SolverMetrics.STAGE_ADMISSION,
+                this.admission::acquire)) {
+            return this.score(state);
+        }
+    }
+
+    /**
+     * Get the best suggestions for a state, ranked by the named strategy.
+     *
+     * @param state    the state
+     * @param strategy the name of the strategy, or null for entropy
+     * @param budget   the time the strategy may spend, or null for the configured default; it is capped at
+     *                 {@code solver.lookahead.max-budget}
+     * @return the suggestions, best first
+     * @throws IllegalArgumentException  if there is no strategy with the name
+     * @throws SolverOverloadedException if the request is not admitted
+     */
+    public List<Suggestion> suggest(SolverState state, String strategy, Duration budget) {
+        if (strategy == null || strategy.equals(EntropyScorer.NAME)) {
+            return this.suggest(state);
+        }
+        final SuggestionStrategy selected = this.strategies.get(strategy);
+        if (selected == null) {
+            throw new IllegalArgumentException("Unknown strategy '" + strategy + "'; expected one of "
+                    + new TreeSet<>(this.strategies.keySet()));
+        }
+        final Duration allowed = budget == null || budget.isNegative() ? this.defaultBudget
+                : budget.compareTo(this.maxBudget) > 0 ? this.maxBudget : budget;
+
+        try (final SolverAdmission.Permit permit = this.metrics.time(SolverMetrics.STAGE_ADMISSION,
+                this.admission::acquire)) {
+            this.metrics.recordSource(SolverMetrics.SOURCE_SCORED);
+            return this.metrics.time(SolverMetrics.STAGE_SCORE, () -> selected.suggest(state, allowed));
+        }
+    }
+
+    /**
+     * @return the dictionaries being served, by name
+     */
+    public SortedMap<String, Dictionary> getDictionaries() {
+        return this.dictionaries.getAll();
+    }
+
+    /**
+     * @return the names of the available strategies
+     */
+    public SortedSet<String> getStrategies() {
+        return new TreeSet<>(this.strategies.keySet());
+    }
+
+    private Optional<List<Suggestion>> walk(SolverState initial, List<Guess> guesses) {
+        if (initial.wordList() != this.wordList || initial.isHardMode()) {
+            return Optional.empty();
+        }
+        final Optional<List<Suggestion>> known = this.metrics.time(SolverMetrics.STAGE_LOOKUP,
+                () -> this.decisionTree.lookup(guesses));
+        known.ifPresent(suggestions -> this.metrics.recordSource(SolverMetrics.SOURCE_TREE));
+        return known;
+    }
+
+    private Optional<List<Suggestion>> lookup(SolverState state) {
+        return this.metrics.time(SolverMetrics.STAGE_LOOKUP, () -> {
+            if (state.wordList() == this.wordList && !state.isHardMode()) {
+                final Optional<List<Suggestion>> known = this.openingBook.lookup(state.possibleWords());
+                if (known.isPresent()) {
+                    this.metrics.recordSource(SolverMetrics.SOURCE_BOOK);
+                    return known;
+                }
+            }
+            final Optional<List<Suggestion>> known = this.solveCache.lookup(state);
+            known.ifPresent(suggestions -> this.metrics.recordSource(SolverMetrics.SOURCE_CACHE));
+            return known;
+        });
+    }
+
+    private List<Suggestion> score(SolverState state) {
+        return this.metrics.time(SolverMetrics.STAGE_SCORE, () ->
+                this.solveCache.compute(state, key -> {
+                    this.metrics.recordSource(SolverMetrics.SOURCE_SCORED);
+                    return List.copyOf(this.scorer.score(state));
+                }));
+    }
+}
@@ -0,0 +1,167 @@
+package net.noisynarwhal.wordlesolver;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable solver state: a word list, the words that are still possible answers and the words that may still be
+ * guessed. Applying feedback returns a new, narrowed state and leaves this one unchanged, so a state can be shared by
+ * any number of threads, cached, or kept by a session without locking.
+ * <p>
+ * Every word may be guessed unless the state is in hard mode, where guesses must use every revealed hint (see
+ * {@link GuessIndex}).
+ */
+public final class SolverState {
+    private final WordList wordList;
+    private final CandidateSet possibleWords;
+    private final CandidateSet guesses;
+    private final boolean hardMode;
+
+    private SolverState(WordList wordList, CandidateSet possibleWords, CandidateSet guesses, boolean hardMode) {
+        this.wordList = wordList;
+        this.possibleWords = possibleWords;
+        this.guesses = guesses;
+        this.hardMode = hardMode;
+    }
+
+    /**
+     * Create the state before any guess, where every word is a possible answer.
+     *
+     * @param wordList the word list
+     * @return the initial state
+     */
+    public static SolverState initial(WordList wordList) {
+        return new SolverState(wordList, wordList.allWords(), wordList.allWords(), false);
+    }
+
+    /**
+     * Create the state where the given words are the possible answers.
+     *
+     * @param wordList      the word list
+     * @param possibleWords the possible answers, drawn from the word list
+     * @return the state
+     */
+    static SolverState of(WordList wordList, CandidateSet possibleWords) {
+        if (possibleWords.universe() != wordList.size()) {
+            throw new IllegalArgumentException("Candidates are not drawn from a word list of " + wordList.size());
+        }
+        return new SolverState(wordList, possibleWords, wordList.allWords(), false);
+    }
+
+    /**
+     * Switch hard mode on or off. Feedback already applied does not restrict the guesses of the returned state; start
+     * hard mode games from a state without feedback.
+     *
+     * @param hardMode whether guesses must use every revealed hint
+     * @return the state in the given mode, or this state if it is already in that mode
+     */
+    public SolverState withHardMode(boolean hardMode) {
+        if (hardMode == this.hardMode) {
+            return this;
+        }
+        return new SolverState(this.wordList, this.possibleWords, this.wordList.allWords(), hardMode);
+    }
+
+    /**
+     * Apply the feedback from a guess. Patterns are read from the feedback matrix when the guessed word is part of the
+     * word list; otherwise the feedback is compiled into a {@link Constraint} that each candidate is checked against.
+     *
+     * @param guess the feedback from the guess
+     * @return the narrowed state, or this state if no word was ruled out
+     */
+    public SolverState update(Guess guess) {
+        return this.update(List.of(guess));
+    }
+
+    /**
+     * Apply the feedback from a sequence of guesses. Guesses in the word list narrow the candidates by reading the
+     * feedback matrix, one guess after the other; all other guesses are compiled into one {@link Constraint} and
+     * applied to the remaining candidates in a single pass. In hard mode, the guesses are also narrowed to the words
+     * that use every hint, by intersecting sets of the {@link GuessIndex}.
+     *
+     * @param guesses the guesses, in any order
+     * @return the narrowed state, or this state if no word was ruled out
+     * @throws IllegalArgumentException if a guess is not a word of the length and alphabet of the word list
+     */
+    public SolverState update(Iterable<Guess> guesses) {
+        final FeedbackMatrix matrix = this.wordList.feedback();
+        CandidateSet narrowed = this.possibleWords;
+        Constraint constraint = null;
+        for (final Guess guess : guesses) {
+            if (guess.word().length() != this.wordList.length()) {
+                throw new IllegalArgumentException("Guess must be " + this.wordList.length() + " letters long: '"
+                        + guess.word() + '\'');
+            }
+            final int guessId = this.wordList.id(guess.word());
+            if (guessId >= 0) {
+                final int feedback = Patterns.encode(guess.feedback());
+                narrowed = narrowed.retain(answerId -> matrix.pattern(guessId, answerId) == feedback);
+            } else {
+                final Constraint compiled = Constraint.of(guess, this.wordList.alphabet());
+                constraint = constraint == null ? compiled : constraint.and(compiled);
+            }
+        }
+        if (constraint != null) {
+            final Constraint compiled = constraint;
+            narrowed = narrowed.retain(answerId -> compiled.test(this.wordList.packed(answerId)));
+        }
+        final CandidateSet guessable = this.hardMode
+                ? this.guesses.and(this.wordList.guessIndex().eligible(guesses))
+                : this.guesses;
+        if (narrowed == this.possibleWords && guessable == this.guesses) {
+            return this;
+        }
+        return new SolverState(this.wordList, narrowed, guessable, this.hardMode);
+    }
+
+    /**
+     * @return the word list
+     */
+    public WordList wordList() {
+        return this.wordList;
+    }
+
+    /**
+     * @return the set of words that are still possible answers
+     */
+    public CandidateSet possibleWords() {
+        return this.possibleWords;
+    }
+
+    /**
+     * @return the set of words that may be guessed next
+     */
+    public CandidateSet guesses() {
+        return this.guesses;
+    }
+
+    /**
+     * @return whether guesses must use every revealed hint
+     */
+    public boolean isHardMode() {
+        return this.hardMode;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SolverState other)) {
+            return false;
+        }
+        return this.wordList == other.wordList && this.hardMode == other.hardMode
+                && this.possibleWords.equals(other.possibleWords) && this.guesses.equals(other.guesses);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(this.wordList), this.possibleWords, this.guesses, this.hardMode);
+    }
+
+    @Override
+    public String toString() {
+        return "SolverState{possibleWords=" + this.possibleWords.cardinality() + '/' + this.wordList.size()
+                + (this.hardMode ? ", guesses=" + this.guesses.cardinality() : "") + '}';
+    }
+}
@@ -1,11 +1,20 @@
 package net.noisynarwhal.wordlesolver;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.Objects;
 
 /**
- * A suggestion for a Wordle guess.
+ * A suggestion for a Wordle guess. Strategies that search ahead also report the expected number of guesses left,
+ * including this one, when it is played.
  */
-public record Suggestion(String word, double entropy, boolean isPossibleAnswer) implements Comparable<Suggestion> {
+public record Suggestion(String word, double entropy, boolean isPossibleAnswer,
+                         @JsonInclude(JsonInclude.Include.NON_NULL) Double expectedGuesses)
+        implements Comparable<Suggestion> {
+
+    public Suggestion(String word, double entropy, boolean isPossibleAnswer) {
+        this(word, entropy, isPossibleAnswer, null);
+    }
 
     @Override
     public int compareTo(Suggestion other) {
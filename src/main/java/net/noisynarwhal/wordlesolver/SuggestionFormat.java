@@ -0,0 +1,81 @@
+package net.noisynarwhal.wordlesolver;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The JSON shapes suggestions can be written in. Suggestions are written field by field with a {@link JsonGenerator},
+ * so large suggestion lists are never held as a tree or bound through reflection.
+ */
+public enum SuggestionFormat {
+    /**
+     * Each suggestion as an object: {@code {"word":"FALSE","entropy":1.0,"isPossibleAnswer":true}}, with
+     * {@code expectedGuesses} when the strategy reports it.
+     */
+    OBJECTS {
+        @Override
+        void write(JsonGenerator generator, Suggestion suggestion) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("word", suggestion.word());
+            generator.writeNumberField("entropy", suggestion.entropy());
+            generator.writeBooleanField("isPossibleAnswer", suggestion.isPossibleAnswer());
+            if (suggestion.expectedGuesses() != null) {
+                generator.writeNumberField("expectedGuesses", suggestion.expectedGuesses());
+            }
+            generator.writeEndObject();
+        }
+    },
+    /**
+     * Each suggestion as a tuple of its values in the same order: {@code ["FALSE",1.0,true]}, with the expected
+     * number of guesses as a fourth value when the strategy reports it. This takes about a third of the bytes.
+     */
+    COMPACT {
+        @Override
+        void write(JsonGenerator generator, Suggestion suggestion) throws IOException {
+            generator.writeStartArray();
+            generator.writeString(suggestion.word());
+            generator.writeNumber(suggestion.entropy());
+            generator.writeBoolean(suggestion.isPossibleAnswer());
+            if (suggestion.expectedGuesses() != null) {
+                generator.writeNumber(suggestion.expectedGuesses());
+            }
+            generator.writeEndArray();
+        }
+    };
+
+    /**
+     * @param name the name of a format, in any case, or null for {@link #OBJECTS}
+     * @return the format
+     * @throws IllegalArgumentException if there is no format with the name
+     */
+    public static SuggestionFormat of(String name) {
+        if (name == null || name.isBlank()) {
+            return OBJECTS;
+        }
+        try {
+            return SuggestionFormat.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown format '" + name + "'; expected one of [compact, objects]");
+        }
+    }
+
+    /**
+     * Write a list of suggestions as a JSON array.
+     *
+     * @param generator   the generator to write to
+     * @param suggestions the suggestions, in order
+     * @throws IOException if the generator cannot write
+     */
+    public void write(JsonGenerator generator, List<Suggestion> suggestions) throws IOException {
+        generator.writeStartArray();
+        for (final Suggestion suggestion : suggestions) {
+            this.write(generator, suggestion);
+        }
+        generator.writeEndArray();
+    }
+
+    abstract void write(JsonGenerator generator, Suggestion suggestion) throws IOException;
+}
@@ -0,0 +1,25 @@
+package net.noisynarwhal.wordlesolver;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * A way of ranking the guesses for a solver state. Implementations are stateless with respect to games, so one
+ * instance serves any number of requests at once.
+ */
+public interface SuggestionStrategy {
+
+    /**
+     * @return the name the strategy is selected by
+     */
+    String name();
+
+    /**
+     * Rank the guesses for a state.
+     *
+     * @param state  the state
+     * @param budget the time the strategy may spend; strategies that do not search ignore it
+     * @return the suggestions, best first
+     */
+    List<Suggestion> suggest(SolverState state, Duration budget);
+}
@@ -5,42 +5,282 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
 
-public class WordList {
+/**
+ * An immutable dictionary of words of one length, spelled with the letters of one {@link Alphabet}; the default word
+ * list holds 5-letter words from A to Z. Words are stored once, in alphabetical order, and are identified by dense
+ * int IDs from 0 to {@code size() - 1}. The feedback matrix and the hard mode {@link GuessIndex} of a word list are
+ * built on first use and shared by every solver using the list.
+ */
+public final class WordList {
     private static final String WORDS_FILE = "/words.txt";
-    private static final Set<String> WORD_LIST = new HashSet<>();
     private static final Logger logger = LoggerFactory.getLogger(WordList.class);
 
-    static {
+    private final String[] words;
+    private final int length;
+    private final Alphabet alphabet;
+    private final long[] packed;
+    private final Map<String, Integer> ids;
+    private final Set<String> wordSet;
+    private final long fingerprint;
+    private final CandidateSet allWords;
+    private volatile FeedbackMatrix feedback;
+    private volatile GuessIndex guessIndex;
+
+    private WordList(SortedSet<String> words, int length, Alphabet alphabet) {
+        this(words.toArray(new String[0]), length, alphabet, null);
+    }
+
+    private WordList(String[] words, int length, Alphabet alphabet, FeedbackMatrix feedback) {
+        this.words = words;
+        this.length = length;
+        this.alphabet = alphabet;
+        this.feedback = feedback;
+        this.packed = new long[this.words.length];
+        this.ids = new HashMap<>(this.words.length * 2);
+        for (int id = 0; id < this.words.length; id++) {
+            this.packed[id] = alphabet.pack(this.words[id]);
+            this.ids.put(this.words[id], id);
+        }
+        this.wordSet = Collections.unmodifiableSet(this.ids.keySet());
+        this.fingerprint = WordList.fingerprint(this.words);
+        this.allWords = CandidateSet.all(this.words.length);
+    }
+
+    private static long fingerprint(String[] words) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (final String word : words) {
+                digest.update(word.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Get the default word list, loaded from {@value #WORDS_FILE} on the classpath.
+     *
+     * @return the shared default word list
+     */
+    public static WordList getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Create a word list of 5-letter words from A to Z. Words are trimmed and upper cased; invalid words are logged and
+     * skipped.
+     *
+     * @param wordList the words to use
+     * @return the word list
+     */
+    public static WordList of(Iterable<String> wordList) {
+        return WordList.of(wordList, Patterns.DEFAULT_WORD_LENGTH, Alphabet.latin());
+    }
+
+    /**
+     * Create a word list from the given words. Words are trimmed and upper cased; words of another length or with
+     * letters outside the alphabet are logged and skipped.
+     *
+     * @param wordList the words to use
+     * @param length   the length of the words, from 1 to {@value Patterns#MAX_WORD_LENGTH}
+     * @param alphabet the letters of the words
+     * @return the word list
+     */
+    public static WordList of(Iterable<String> wordList, int length, Alphabet alphabet) {
+        Patterns.checkLength(length);
+        final SortedSet<String> words = new TreeSet<>();
+        for (final String s : wordList) {
+            final String word = s.trim().toUpperCase();
+            if (alphabet.isWord(word, length)) {
+                words.add(word);
+            } else {
+                logger.warn("Invalid word in word list: {}", word);
+            }
+        }
+        return new WordList(words, length, alphabet);
+    }
+
+    /**
+     * Create a word list of the {@link Alphabet#latin() Latin alphabet} with a precomputed feedback matrix.
+     *
+     * @param words    the words, upper case and in strictly ascending order
+     * @param feedback the feedback matrix of the words
+     * @return the word list
+     */
+    static WordList of(String[] words, FeedbackMatrix feedback) {
+        final int length = feedback.wordLength();
+        for (int id = 0; id < words.length; id++) {
+            if (!Alphabet.latin().isWord(words[id], length) || (id > 0 && words[id - 1].compareTo(words[id]) >= 0)) {
+                throw new IllegalArgumentException("Words must be " + length
+                        + " upper case letters in ascending order: '" + words[id] + '\'');
+            }
+        }
+        if (feedback.size() != words.length) {
+            throw new IllegalArgumentException("Feedback matrix does not match the word list");
+        }
+        return new WordList(words.clone(), length, Alphabet.latin(), feedback);
+    }
+
+    /**
+     * @return the words of the default word list
+     */
+    public static Set<String> getWords() {
+        return WordList.getDefault().wordSet;
+    }
+
+    /**
+     * @return the number of words in the list
+     */
+    public int size() {
+        return this.words.length;
+    }
+
+    /**
+     * @param id a word ID
+     * @return the word with the given ID
+     */
+    public String word(int id) {
+        return this.words[id];
+    }
+
+    /**
+     * @return the length of the words
+     */
+    public int length() {
+        return this.length;
+    }
+
+    /**
+     * @return the letters the words are spelled with
+     */
+    public Alphabet alphabet() {
+        return this.alphabet;
+    }
+
+    /**
+     * @param id a word ID
+     * @return the letters of the word with the given ID, packed by {@link Alphabet#pack(CharSequence)}
+     */
+    public long packed(int id) {
+        return this.packed[id];
+    }
+
+    /**
+     * @return the packed letters of every word, in ID order; the array is shared and must not be modified
+     */
+    long[] packed() {
+        return this.packed;
+    }
+
+    /**
+     * Pack a word that may not be in the list, such as a guess.
+     *
+     * @param word a word
+     * @return the packed word
+     * @throws IllegalArgumentException if the word does not have the length of the list or has letters outside its
+     *                                  alphabet
+     */
+    public long pack(String word) {
+        if (word.length() != this.length) {
+            throw new IllegalArgumentException("Word must be " + this.length + " letters long: '" + word + '\'');
+        }
+        return this.alphabet.pack(word);
+    }
+
+    /**
+     * @param word an upper case word
+     * @return the ID of the word, or -1 if the word is not in the list
+     */
+    public int id(String word) {
+        final Integer id = this.ids.get(word);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @return the set of every word in the list
+     */
+    public CandidateSet allWords() {
+        return this.allWords;
+    }
+
+    /**
+     * @return a hash of the words in the list, used to check that precomputed data matches the list
+     */
+    public long fingerprint() {
+        return this.fingerprint;
+    }
+
+    /**
+     * @return the words of the list, in ID order
+     */
+    public List<String> words() {
+        return List.of(this.words);
+    }
+
+    /**
+     * Get the feedback matrix of this word list, building it on first use.
+     *
+     * @return the feedback matrix
+     */
+    public FeedbackMatrix feedback() {
+        FeedbackMatrix matrix = this.feedback;
+        if (matrix == null) {
+            synchronized (this) {
+                matrix = this.feedback;
+                if (matrix == null) {
+                    matrix = FeedbackMatrix.build(this);
+                    this.feedback = matrix;
+                }
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Get the hard mode guess index of this word list, building it on first use.
+     *
+     * @return the guess index
+     */
+    public GuessIndex guessIndex() {
+        GuessIndex index = this.guessIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = this.guessIndex;
+                if (index == null) {
+                    index = GuessIndex.build(this);
+                    this.guessIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    private static final class DefaultHolder {
+        private static final WordList INSTANCE = WordList.load();
+    }
+
+    private static WordList load() {
         try {
+            final List<String> lines = new ArrayList<>();
             try (final BufferedReader reader = new BufferedReader(
                     new InputStreamReader(Objects.requireNonNull(WordList.class.getResourceAsStream(WORDS_FILE))))) {
                 String line;
                 while ((line = reader.readLine()) != null) {
-                    final String word = line.trim().toUpperCase();
-                    if (word.matches("^[A-Z]{5}$")) {
-                        WordList.WORD_LIST.add(word);
-                    } else {
-                        logger.warn("Invalid word in word list: {}", word);
-                    }
+                    lines.add(line);
                 }
             }
+            return WordList.of(lines);
         } catch (Throwable th) {
             throw new RuntimeException("Failed to load word list", th);
         }
     }
 
-
-    private WordList() {
-        // Prevent instantiation
-    }
-
-    public static Set<String> getWords() {
-        return Collections.unmodifiableSet(WordList.WORD_LIST);
-    }
-
-}
\ No newline at end of file
+}
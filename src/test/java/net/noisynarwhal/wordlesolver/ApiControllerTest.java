@@ -1,6 +1,7 @@
 package net.noisynarwhal.wordlesolver;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,17 +10,26 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.context.TestPropertySource;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ApiController.class)
-@Import(VersionConfig.class)
+@Import({VersionConfig.class, SolverConfig.class, Dictionaries.class, SolveCache.class, SolverService.class,
+        SolverAdmission.class, SolverMetrics.class, LookaheadStrategy.class})
+@TestPropertySource(properties = "solver.admission.queue-timeout=100ms")
 class ApiControllerTest {
     private static final Logger logger = LoggerFactory.getLogger(ApiControllerTest.class);
 
@@ -29,6 +39,15 @@ class ApiControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private SolveCache solveCache;
+
+    @Autowired
+    private SolverAdmission solverAdmission;
+
+    @Autowired
+    private SolverMetrics solverMetrics;
+
     @Test
     void testIndex() throws Exception {
         mockMvc.perform(get("/api/v1/"))
@@ -168,4 +187,225 @@ class ApiControllerTest {
             logger.info("Response content: {}", responseContent);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSolveCacheSharesEquivalentStates() throws Exception {
+        final List<Guess> oneGuess = List.of(new Guess("TARES", "BGBYY"), new Guess("SULPH", "YBGBB"));
+        final List<Guess> twoGuesses = List.of(new Guess("SULPH", "YBGBB"), new Guess("TARES", "BGBYY"));
+
+        mockMvc.perform(post("/api/v1/solve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(oneGuess)))
+                .andExpect(status().isOk());
+        final long hits = solveCache.stats().hitCount();
+
+        mockMvc.perform(post("/api/v1/solve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(twoGuesses)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions.length()").value(2))
+                .andExpect(jsonPath("$.suggestions[0].word").value("FALSE"));
+        assertEquals(hits + 1, solveCache.stats().hitCount());
+    }
+
+    @Test
+    void testSolveBatchStreamsResultsInOrder() throws Exception {
+        final List<List<Guess>> games = List.of(
+                List.of(new Guess("TARES", "BGBYY"), new Guess("SULPH", "YBGBB")),
+                List.of(new Guess("TARES", "YBBBB"), new Guess("COLIN", "BGBBB"), new Guess("HUMPY", "BBYBB")),
+                List.of(new Guess("TARES", "YBBGY"), new Guess("KNELT", "BBGYY"))
+        );
+
+        final MvcResult started = mockMvc.perform(post("/api/v1/solve/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(games)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        final String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        final List<String> lines = body.lines().toList();
+        assertEquals(3, lines.size());
+        assertEquals("FALSE", objectMapper.readTree(lines.get(0)).at("/suggestions/0/word").asText());
+        assertEquals("MOTTO", objectMapper.readTree(lines.get(1)).at("/suggestions/0/word").asText());
+        assertEquals("STEEL", objectMapper.readTree(lines.get(2)).at("/suggestions/0/word").asText());
+        assertEquals(2, objectMapper.readTree(lines.get(2)).get("index").asInt());
+        assertEquals(0, solverAdmission.getActive());
+    }
+
+    @Test
+    void testSolveBatchRejectsBadGamesBeforeStreaming() throws Exception {
+        final List<List<Guess>> games = List.of(
+                List.of(new Guess("TARES", "BGBYY")),
+                List.of(new Guess("TARES", "YBBBB"), new Guess("COLINS", "BGBBBB"))
+        );
+
+        mockMvc.perform(post("/api/v1/solve/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(games)))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testLimitedCompactAndStreamedResponses() throws Exception {
+        final String guesses = objectMapper.writeValueAsString(List.of(new Guess("TARES", "BGBYY")));
+
+        final String full = mockMvc.perform(post("/api/v1/solve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(guesses))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final int total = objectMapper.readTree(full).get("count").asInt();
+        assertTrue(total > 3);
+
+        mockMvc.perform(post("/api/v1/solve")
+                        .param("limit", "3")
+                        .param("format", "compact")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(guesses))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(3))
+                .andExpect(jsonPath("$.total").value(total))
+                .andExpect(jsonPath("$.suggestions.length()").value(3))
+                .andExpect(jsonPath("$.suggestions[0][0]").value(objectMapper.readTree(full).at("/suggestions/0/word").asText()))
+                .andExpect(jsonPath("$.suggestions[0][2]").isBoolean());
+
+        final MvcResult started = mockMvc.perform(post("/api/v1/solve")
+                        .param("stream", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(guesses))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        final String streamed = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(objectMapper.readTree(full).get("suggestions"), objectMapper.readTree(streamed).get("suggestions"));
+
+        mockMvc.perform(post("/api/v1/solve")
+                        .param("format", "xml")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(guesses))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/v1/solve")
+                        .param("limit", "-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(guesses))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSaturatedSolverRejectsScoringButServesCheapRequests() throws Exception {
+        // The initial state comes from the opening book once packaged; before that, the first request caches it
+        mockMvc.perform(post("/api/v1/solve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isOk());
+
+        final List<SolverAdmission.Permit> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < solverAdmission.getMaxConcurrent(); i++) {
+                held.add(solverAdmission.acquire());
+            }
+
+            mockMvc.perform(post("/api/v1/solve")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(List.of(new Guess("SLATE", "BBBBB")))))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists("Retry-After"))
+                    .andExpect(jsonPath("$.status").value(503));
+
+            mockMvc.perform(get("/api/v1/"))
+                    .andExpect(status().isOk());
+            mockMvc.perform(post("/api/v1/solve")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[]"))
+                    .andExpect(status().isOk());
+        } finally {
+            held.forEach(SolverAdmission.Permit::close);
+        }
+        assertEquals(0, solverAdmission.getActive());
+    }
+
+    @Test
+    void testSolveRecordsStageMetrics() throws Exception {
+        final MeterRegistry registry = solverMetrics.registry();
+        final long scored = registry.get("solver.stage").tag("stage", SolverMetrics.STAGE_SCORE).timer().count();
+        final long serialized = registry.get("solver.stage").tag("stage", SolverMetrics.STAGE_SERIALIZE).timer().count();
+
+        mockMvc.perform(post("/api/v1/solve")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new Guess("CRANE", "BBBBB")))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+        assertEquals(scored + 1, registry.get("solver.stage").tag("stage", SolverMetrics.STAGE_SCORE).timer().count());
+        assertEquals(serialized + 1,
+                registry.get("solver.stage").tag("stage", SolverMetrics.STAGE_SERIALIZE).timer().count());
+        assertTrue(registry.get("solver.candidates").tag("phase", "after").summary().count() > 0);
+        assertTrue(registry.get("solver.words.scored").summary().totalAmount() > 0);
+    }
+
+    @Test
+    void testSolveWithLookaheadStrategy() throws Exception {
+        mockMvc.perform(post("/api/v1/solve")
+                        .param("strategy", LookaheadStrategy.NAME)
+                        .param("budgetMs", "2000")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new Guess("TARES", "BGBYY"), new Guess("SULPH", "YBGBB")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions[0].word").value("FALSE"))
+                .andExpect(jsonPath("$.suggestions[0].expectedGuesses").value(1.5));
+
+        mockMvc.perform(post("/api/v1/solve")
+                        .param("strategy", "unknown")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testUnknownDictionaryIsRejected() throws Exception {
+        mockMvc.perform(post("/api/v1/solve")
+                        .param("dictionary", "klingon")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("klingon")));
+
+        mockMvc.perform(post("/api/v1/solve")
+                        .param("dictionary", Dictionaries.DEFAULT)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(new Guess("TARES", "BGBYY"),
+                                new Guess("SULPH", "YBGBB")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions[0].word").value("FALSE"));
+    }
+
+    @Test
+    void testSolveBoardsSkipsSolvedBoards() throws Exception {
+        final List<List<Guess>> boards = List.of(
+                List.of(new Guess("TARES", "BGBYY"), new Guess("SULPH", "YBGBB")),
+                List.of(new Guess("TARES", "GGGGG")),
+                List.of(new Guess("TARES", "BGBYY"), new Guess("SULPH", "YBGBB")));
+        mockMvc.perform(post("/api/v1/solve/boards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(boards)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions[0].word").value("FALSE"))
+                .andExpect(jsonPath("$.suggestions[0].entropy").value(2.0))
+                .andExpect(jsonPath("$.total").value(2));
+
+        mockMvc.perform(post("/api/v1/solve/boards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                List.of(new Guess("TARES", "BGBYY")),
+                                List.of(new Guess("RATES", "BGBYY"))))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("RATES")));
+    }
+}
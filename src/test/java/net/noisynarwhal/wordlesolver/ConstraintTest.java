@@ -0,0 +1,61 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstraintTest {
+
+    @Test
+    void testConstraintMatchesPatternForEveryFeedback() {
+        final WordList wordList = WordList.of(WordList.getWords().stream().sorted().limit(1000).toList());
+        final List<String> guesses = new ArrayList<>(List.of("EERIE", "LLAMA", "GEESE", "SPEED", "ABACA", "XYLYL"));
+        for (int id = 0; id < wordList.size(); id += 97) {
+            guesses.add(wordList.word(id));
+        }
+
+        for (final String word : guesses) {
+            final long guess = Patterns.pack(word);
+            for (int pattern = 0; pattern < Patterns.patternCount(5); pattern++) {
+                final Constraint constraint = Constraint.of(new Guess(word, Patterns.decode(pattern, 5)));
+                for (int answerId = 0; answerId < wordList.size(); answerId++) {
+                    final long answer = wordList.packed(answerId);
+                    assertEquals(Patterns.compute(guess, answer, 5) == pattern, constraint.test(answer),
+                            word + ' ' + Patterns.decode(pattern, 5) + ' ' + wordList.word(answerId));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testHistoryMatchesComputedPatterns() {
+        // Half the words can be guessed but are not in the list, so their feedback is applied as a constraint
+        final List<String> words = WordList.getWords().stream().sorted().toList();
+        final WordList wordList = WordList.of(words.subList(0, words.size() / 2));
+        final Random random = new Random(20220119L);
+        for (int game = 0; game < 200; game++) {
+            final int answerId = random.nextInt(wordList.size());
+            final List<Guess> history = new ArrayList<>();
+            for (int turn = 0; turn < 4; turn++) {
+                final String word = words.get(random.nextInt(words.size()));
+                history.add(new Guess(word, Patterns.feedback(word, wordList.word(answerId))));
+
+                final CandidateSet expected = CandidateSet.all(wordList.size()).retain(id -> history.stream()
+                        .allMatch(guess -> Patterns.compute(guess.word(), wordList.word(id))
+                                == Patterns.encode(guess.feedback())));
+                final CandidateSet actual = SolverState.initial(wordList).update(history).possibleWords();
+                assertEquals(expected, actual);
+                assertTrue(actual.contains(answerId));
+            }
+        }
+
+        final List<Guess> contradiction = List.of(new Guess("ZZZZZ", "GBBBB"), new Guess("ZZZZZ", "BBBBB"));
+        assertFalse(Constraint.of(contradiction).isSatisfiable());
+        assertTrue(SolverState.initial(wordList).update(contradiction).possibleWords().isEmpty());
+        assertFalse(Constraint.of(new Guess("EERIE", "BYBBB")).isSatisfiable());
+    }
+}
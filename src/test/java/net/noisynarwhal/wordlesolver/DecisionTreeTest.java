@@ -0,0 +1,81 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecisionTreeTest {
+
+    private static WordList sampleWordList() {
+        return WordList.of(WordList.getWords().stream().sorted().limit(400).toList());
+    }
+
+    @Test
+    void testTreeMatchesLiveSuggestionsAfterRoundTrip() throws Exception {
+        final WordList wordList = sampleWordList();
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final DecisionTree tree = DecisionTree.build(wordList, null, pool);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            tree.write(out);
+            final DecisionTree read = DecisionTree.read(new ByteArrayInputStream(out.toByteArray()), wordList);
+            assertEquals(tree.size(), read.size());
+            assertEquals(tree.opener(), read.opener());
+
+            // Play every answer along the tree and compare each state with the live solver
+            for (int answerId = 0; answerId < wordList.size(); answerId += 37) {
+                final String answer = wordList.word(answerId);
+                final WordleSolver solver = new WordleSolver(wordList);
+                final List<Guess> guesses = new ArrayList<>();
+                while (true) {
+                    final List<Suggestion> live = List.copyOf(solver.getBestSuggestions());
+                    assertEquals(live.stream().map(Suggestion::toString).toList(),
+                            read.lookup(guesses).orElseThrow().stream().map(Suggestion::toString).toList());
+                    final String word = guesses.isEmpty() ? read.opener() : live.get(0).word();
+                    if (word.equals(answer)) {
+                        break;
+                    }
+                    final Guess guess = new Guess(word, Patterns.feedback(word, answer));
+                    guesses.add(guess);
+                    solver.update(guess);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testOffTreeGuessIsNotFound() {
+        final WordList wordList = sampleWordList();
+        final DecisionTree tree = DecisionTree.build(wordList, wordList.word(0), ForkJoinPool.commonPool());
+        assertEquals(wordList.word(0), tree.opener());
+
+        final String other = wordList.word(1);
+        final Guess offTree = new Guess(other, Patterns.feedback(other, wordList.word(2)));
+        assertTrue(tree.lookup(List.of(offTree)).isEmpty());
+        assertTrue(DecisionTree.empty(wordList).lookup(List.of()).isEmpty());
+    }
+
+    @Test
+    void testWordsTooLongForTheFormatAreRejected() {
+        final WordList wordList = WordList.of(List.of("ANOTHER", "BETWEEN", "EXAMPLE"), 7, Alphabet.latin());
+        assertThrows(IllegalArgumentException.class, () -> DecisionTree.build(wordList, null, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    void testTreeForDifferentWordListIsRejected() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DecisionTree.build(sampleWordList(), null, ForkJoinPool.commonPool()).write(out);
+
+        final WordList other = WordList.of(List.of("TARES", "FALSE", "VALSE"));
+        assertThrows(IllegalStateException.class,
+                () -> DecisionTree.read(new ByteArrayInputStream(out.toByteArray()), other));
+    }
+}
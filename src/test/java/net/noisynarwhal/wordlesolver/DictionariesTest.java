@@ -0,0 +1,105 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DictionariesTest {
+
+    @TempDir
+    Path directory;
+
+    private final List<Object> events = new CopyOnWriteArrayList<>();
+
+    private Dictionaries dictionaries() {
+        final SolverConfig config = new SolverConfig();
+        config.getDictionaries().setDirectory(this.directory.toString());
+        return new Dictionaries(config, WordList.of(List.of("TARES", "FALSE", "VALSE")), this.events::add);
+    }
+
+    private void writeDictionary(String name, List<String> answers, List<String> guesses) throws Exception {
+        final Path dictionary = Files.createDirectories(this.directory.resolve(name));
+        Files.write(dictionary.resolve(Dictionary.ANSWERS_FILE), answers);
+        Files.write(dictionary.resolve(Dictionary.GUESSES_FILE), guesses);
+    }
+
+    @Test
+    void testDictionarySeparatesAnswersFromGuesses() {
+        final Dictionary dictionary = Dictionary.of("tiny", List.of("false", "valse", ""), List.of("TARES", "SULPH"));
+        assertEquals(4, dictionary.wordList().size());
+        assertEquals(2, dictionary.answers().cardinality());
+
+        final SolverState state = dictionary.initialState();
+        assertEquals(2, state.possibleWords().cardinality());
+        final List<Suggestion> suggestions = List.copyOf(new EntropyScorer().score(state));
+        assertTrue(suggestions.get(0).isPossibleAnswer());
+        final int guessId = dictionary.wordList().id("SULPH");
+        assertTrue(guessId >= 0);
+        assertFalse(dictionary.answers().contains(guessId));
+    }
+
+    @Test
+    void testLoadReadsWordLengthAndAlphabet() throws Exception {
+        this.writeDictionary("seis", List.of("NIÑOS", "AÑEJOS", "SUEÑOS", "PERROS"), List.of("GATITO"));
+        Files.writeString(this.directory.resolve("seis").resolve(Dictionary.PROPERTIES_FILE),
+                "length=6\nalphabet=ABCDEFGHIJKLMNÑOPQRSTUVWXYZ\n");
+        final Dictionary dictionary = Dictionary.load(this.directory.resolve("seis"));
+        assertEquals(6, dictionary.wordList().length());
+        assertEquals(4, dictionary.wordList().size());
+        assertEquals(3, dictionary.answers().cardinality());
+
+        final SolverState state = dictionary.initialState().update(new Guess("AÑEJOS", "BYGBGG"));
+        assertArrayEquals(new int[]{dictionary.wordList().id("SUEÑOS")}, state.possibleWords().toArray());
+    }
+
+    @Test
+    void testNonLatinWordListsWithDifferentWordsDiffer() {
+        final Alphabet cyrillic = Alphabet.of("АБВГДЕЖЗИЙКЛМНОПРСТУФХЦЧШЩЪЫЬЭЮЯ".substring(0, Alphabet.MAX_SIZE));
+        final Dictionary first = Dictionary.of("ru", List.of("КНИГА", "ЛАМПА"), List.of(), 5, cyrillic);
+        final Dictionary second = Dictionary.of("ru", List.of("КНИГА", "ПАРТА"), List.of(), 5, cyrillic);
+        assertNotEquals(first.wordList().fingerprint(), second.wordList().fingerprint());
+        assertFalse(first.hasSameWords(second));
+        assertTrue(first.hasSameWords(Dictionary.of("ru", List.of("ЛАМПА", "КНИГА"), List.of(), 5, cyrillic)));
+    }
+
+    @Test
+    void testReloadSwapsChangedDictionariesOnly() throws Exception {
+        this.writeDictionary("tiny", List.of("FALSE", "VALSE"), List.of("TARES"));
+        this.writeDictionary("other", List.of("SPEED", "EERIE"), List.of());
+        final Dictionaries dictionaries = this.dictionaries();
+        try {
+            assertEquals(Set.of(Dictionaries.DEFAULT, "tiny", "other"), dictionaries.reload().get());
+            final Dictionary tiny = dictionaries.get("tiny");
+            final Dictionary other = dictionaries.get("other");
+            assertEquals(3, tiny.wordList().size());
+            assertSame(dictionaries.getDefault(), dictionaries.get(null));
+            assertEquals(List.of(), this.events);
+
+            this.writeDictionary("tiny", List.of("FALSE", "VALSE", "TARES"), List.of());
+            Files.delete(this.directory.resolve("other").resolve(Dictionary.ANSWERS_FILE));
+            assertEquals(Set.of(Dictionaries.DEFAULT, "tiny"), dictionaries.reload().get());
+            assertNotSame(tiny, dictionaries.get("tiny"));
+            assertEquals(3, dictionaries.get("tiny").answers().cardinality());
+            assertThrows(IllegalArgumentException.class, () -> dictionaries.get("other"));
+            assertEquals(Set.of(new DictionaryReplacedEvent(tiny), new DictionaryReplacedEvent(other)),
+                    Set.copyOf(this.events));
+
+            // The previous version stays usable by games that started with it
+            assertEquals(2, other.initialState().possibleWords().cardinality());
+
+            final Dictionary unchanged = dictionaries.get("tiny");
+            dictionaries.reload().get();
+            assertSame(unchanged, dictionaries.get("tiny"));
+            assertEquals(2, this.events.size());
+        } finally {
+            dictionaries.destroy();
+        }
+    }
+}
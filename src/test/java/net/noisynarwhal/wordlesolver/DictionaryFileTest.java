@@ -0,0 +1,48 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DictionaryFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testMappedDictionaryMatchesBuiltMatrix() throws Exception {
+        final WordList wordList = WordList.of(List.of("TARES", "FALSE", "VALSE", "SPEED", "EERIE", "THREW", "LLAMA"));
+        final Path file = this.directory.resolve("words.dict");
+        DictionaryFile.write(wordList, file);
+
+        final WordList mapped = DictionaryFile.open(file);
+        assertEquals(wordList.words(), mapped.words());
+        assertEquals(wordList.fingerprint(), mapped.fingerprint());
+        for (int guessId = 0; guessId < wordList.size(); guessId++) {
+            assertEquals(wordList.feedback().distinctPatterns(guessId), mapped.feedback().distinctPatterns(guessId));
+            for (int answerId = 0; answerId < wordList.size(); answerId++) {
+                assertEquals(wordList.feedback().pattern(guessId, answerId), mapped.feedback().pattern(guessId, answerId));
+            }
+        }
+
+        final WordleSolver solver = new WordleSolver(mapped);
+        solver.update(new Guess("TARES", "BGBYY"));
+        assertEquals(List.of("FALSE", "VALSE"), solver.getBestSuggestions().stream().map(Suggestion::word).toList());
+    }
+
+    @Test
+    void testCorruptFileIsRejected() throws Exception {
+        final Path file = this.directory.resolve("words.dict");
+        DictionaryFile.write(WordList.of(List.of("TARES", "FALSE", "VALSE")), file);
+        final byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThrows(IllegalStateException.class, () -> DictionaryFile.open(file));
+    }
+}
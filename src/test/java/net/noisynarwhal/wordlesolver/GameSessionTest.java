@@ -0,0 +1,31 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionTest {
+
+    @Test
+    void testConcurrentGuessesAreEachAppliedOnce() {
+        final GameSession session = new GameSession("game", SolverState.initial(WordList.getDefault()));
+        final AtomicInteger updates = new AtomicInteger();
+        final List<CompletableFuture<GameSession.Snapshot>> added = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            added.add(CompletableFuture.supplyAsync(() -> session.addGuess(new Guess("TARES", "BBBBB"),
+                    (state, guess) -> {
+                        updates.incrementAndGet();
+                        return state.update(guess);
+                    })));
+        }
+        added.forEach(CompletableFuture::join);
+
+        assertEquals(16, updates.get());
+        assertEquals(16, session.getSnapshot().guesses().size());
+    }
+}
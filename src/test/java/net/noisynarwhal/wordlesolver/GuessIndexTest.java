@@ -0,0 +1,72 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuessIndexTest {
+
+    @Test
+    void testEligibleGuessesUseEveryHint() {
+        final WordList wordList = WordList.getDefault();
+        final Random random = new Random(20220211L);
+        for (int game = 0; game < 50; game++) {
+            final String answer = wordList.word(random.nextInt(wordList.size()));
+            final List<Guess> history = new ArrayList<>();
+            SolverState state = SolverState.initial(wordList).withHardMode(true);
+            for (int turn = 0; turn < 3; turn++) {
+                final String word = wordList.word(random.nextInt(wordList.size()));
+                final Guess guess = new Guess(word, Patterns.feedback(word, answer));
+                history.add(guess);
+                state = state.update(guess);
+
+                final CandidateSet expected = wordList.allWords().retain(id -> history.stream()
+                        .allMatch(hint -> GuessIndexTest.usesHints(wordList.word(id), hint)));
+                assertEquals(expected, wordList.guessIndex().eligible(history));
+                assertEquals(expected, state.guesses());
+                assertEquals(state.possibleWords(), state.possibleWords().and(state.guesses()));
+            }
+        }
+    }
+
+    @Test
+    void testHardModeScoresOnlyEligibleGuesses() {
+        final AtomicInteger scored = new AtomicInteger();
+        final EntropyScorer scorer = new EntropyScorer(null, scored::set);
+        final Guess guess = new Guess("CRANE", "BGBBY");
+
+        final SolverState normal = SolverState.initial(WordList.getDefault()).update(guess);
+        scorer.score(normal);
+        final int normalScored = scored.get();
+
+        final SolverState hard = SolverState.initial(WordList.getDefault()).withHardMode(true).update(guess);
+        assertEquals(normal.possibleWords(), hard.possibleWords());
+        for (final Suggestion suggestion : scorer.score(hard)) {
+            final String word = suggestion.word();
+            assertTrue(word.charAt(1) == 'R' && word.indexOf('E') >= 0, word);
+        }
+        assertTrue(scored.get() * 10 < normalScored, scored.get() + " vs " + normalScored);
+    }
+
+    private static boolean usesHints(String word, Guess hint) {
+        for (int i = 0; i < word.length(); i++) {
+            final char letter = hint.word().charAt(i);
+            if (hint.feedback().charAt(i) == 'G' && word.charAt(i) != letter) {
+                return false;
+            }
+            long revealed = 0;
+            for (int j = 0; j < word.length(); j++) {
+                revealed += hint.word().charAt(j) == letter && hint.feedback().charAt(j) != 'B' ? 1 : 0;
+            }
+            if (word.chars().filter(c -> c == letter).count() < revealed) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
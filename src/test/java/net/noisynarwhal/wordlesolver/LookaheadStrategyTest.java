@@ -0,0 +1,81 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookaheadStrategyTest {
+    private static final List<String> WORDS = List.of(
+            "BATCH", "CATCH", "HATCH", "LATCH", "MATCH", "PATCH", "WATCH", "CHAMP", "BLOWN", "WHELP", "CLIMB");
+
+    @Test
+    void testExhaustiveSearchFindsOptimalExpectedGuesses() {
+        final WordList wordList = WordList.of(WORDS);
+        final SolverState state = SolverState.initial(wordList)
+                .update(new Guess("BATCH", Patterns.feedback("BATCH", "WATCH")));
+        final LookaheadStrategy strategy = new LookaheadStrategy(null, 6, wordList.size(), 1_000);
+
+        final List<Suggestion> suggestions = strategy.suggest(state, Duration.ofMinutes(1));
+        assertEquals(optimalCost(wordList, state.possibleWords().toArray()), suggestions.get(0).expectedGuesses(), 1e-9);
+        for (int i = 1; i < suggestions.size(); i++) {
+            assertTrue(suggestions.get(i - 1).expectedGuesses() <= suggestions.get(i).expectedGuesses());
+        }
+        // No candidate splits the six remaining -ATCH words, so a non-answer is the best guess
+        assertFalse(suggestions.get(0).isPossibleAnswer());
+    }
+
+    @Test
+    void testTwoCandidatesAreGuessedDirectly() {
+        final WordList wordList = WordList.of(List.of("TARES", "FALSE", "VALSE", "SPEED", "BADGE"));
+        final SolverState state = SolverState.initial(wordList).update(new Guess("TARES", "BGBYY"));
+
+        final List<Suggestion> suggestions = new LookaheadStrategy(null, 2, 5, 100).suggest(state, Duration.ZERO);
+        assertEquals(List.of("FALSE", "VALSE"), suggestions.stream().map(Suggestion::word).toList());
+        assertTrue(suggestions.stream().allMatch(suggestion -> suggestion.expectedGuesses() == 1.5));
+    }
+
+    @Test
+    void testExhaustedBudgetFallsBackToEntropyOrder() {
+        final WordList wordList = WordList.of(WordList.getWords().stream().sorted().limit(500).toList());
+        final List<Suggestion> suggestions = new LookaheadStrategy(null, 3, 5, 100)
+                .suggest(SolverState.initial(wordList), Duration.ZERO);
+
+        assertEquals(5, suggestions.size());
+        assertTrue(suggestions.stream().allMatch(suggestion -> suggestion.expectedGuesses() == null));
+    }
+
+    /**
+     * The optimal expected number of guesses for a set of candidates, by trying every word at every state.
+     */
+    private static double optimalCost(WordList wordList, int[] candidates) {
+        if (candidates.length <= 2) {
+            return candidates.length == 1 ? 1.0 : 1.5;
+        }
+        double best = Double.MAX_VALUE;
+        for (int guessId = 0; guessId < wordList.size(); guessId++) {
+            final Map<Integer, List<Integer>> partitions = new TreeMap<>();
+            for (final int answerId : candidates) {
+                partitions.computeIfAbsent(wordList.feedback().pattern(guessId, answerId), p -> new ArrayList<>())
+                        .add(answerId);
+            }
+            if (partitions.size() == 1 && !partitions.containsKey(Patterns.allGreen(5))) {
+                continue;
+            }
+            double cost = 1.0;
+            for (final Map.Entry<Integer, List<Integer>> partition : partitions.entrySet()) {
+                if (partition.getKey() != Patterns.allGreen(5)) {
+                    cost += (double) partition.getValue().size() / candidates.length
+                            * optimalCost(wordList, partition.getValue().stream().mapToInt(Integer::intValue).toArray());
+                }
+            }
+            best = Math.min(best, cost);
+        }
+        return best;
+    }
+}
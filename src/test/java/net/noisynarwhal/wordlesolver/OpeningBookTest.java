@@ -0,0 +1,53 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+
+    private static WordList sampleWordList() {
+        return WordList.of(WordList.getWords().stream().sorted().limit(400).toList());
+    }
+
+    @Test
+    void testBookRoundTrip() throws Exception {
+        final WordList wordList = sampleWordList();
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final OpeningBook book = OpeningBook.build(wordList, pool);
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            book.write(out);
+            final OpeningBook read = OpeningBook.read(new ByteArrayInputStream(out.toByteArray()), wordList);
+
+            assertEquals(book.size(), read.size());
+            final WordleSolver solver = new WordleSolver(wordList);
+            final List<Suggestion> firstTurn = List.copyOf(solver.getBestSuggestions());
+            assertEquals(firstTurn.stream().map(Suggestion::toString).toList(),
+                    read.lookup(solver.getPossibleWords()).orElseThrow().stream().map(Suggestion::toString).toList());
+
+            final String opener = firstTurn.get(0).word();
+            final String answer = wordList.word(wordList.size() - 1);
+            solver.update(new Guess(opener, Patterns.feedback(opener, answer)));
+            assertEquals(solver.getBestSuggestions().stream().map(Suggestion::toString).toList(),
+                    read.lookup(solver.getPossibleWords()).orElseThrow().stream().map(Suggestion::toString).toList());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testBookForDifferentWordListIsRejected() throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        OpeningBook.build(sampleWordList(), null).write(out);
+
+        final WordList other = WordList.of(List.of("TARES", "FALSE", "VALSE"));
+        assertThrows(IllegalStateException.class,
+                () -> OpeningBook.read(new ByteArrayInputStream(out.toByteArray()), other));
+    }
+}
@@ -0,0 +1,66 @@
+package net.noisynarwhal.wordlesolver;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SessionController.class)
+@Import({VersionConfig.class, SolverConfig.class, Dictionaries.class, SolveCache.class, SolverService.class,
+        SolverAdmission.class, SolverMetrics.class, LookaheadStrategy.class, GameSessions.class})
+class SessionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testGuessesNarrowSession() throws Exception {
+        final String created = mockMvc.perform(post("/api/v1/sessions"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.sessionId").isString())
+                .andExpect(jsonPath("$.guesses").isEmpty())
+                .andReturn().getResponse().getContentAsString();
+        final String sessionId = objectMapper.readTree(created).get("sessionId").asText();
+
+        mockMvc.perform(post("/api/v1/sessions/{id}/guesses", sessionId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Guess("TARES", "BGBYY"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.guesses.length()").value(1));
+
+        mockMvc.perform(post("/api/v1/sessions/{id}/guesses", sessionId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Guess("SULPH", "YBGBB"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.guesses.length()").value(2))
+                .andExpect(jsonPath("$.suggestions.length()").value(2))
+                .andExpect(jsonPath("$.suggestions[0].word").value("FALSE"))
+                .andExpect(jsonPath("$.suggestions[1].word").value("VALSE"));
+
+        mockMvc.perform(get("/api/v1/sessions/{id}", sessionId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(2));
+
+        mockMvc.perform(delete("/api/v1/sessions/{id}", sessionId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/sessions/{id}", sessionId))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUnknownSession() throws Exception {
+        mockMvc.perform(post("/api/v1/sessions/{id}/guesses", "missing")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Guess("TARES", "BGBYY"))))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,47 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatorTest {
+
+    @Test
+    void testSimulationSolvesEveryAnswer() {
+        final List<String> answers = List.of("FALSE", "FEVER", "MOTTO", "STEEL", "TARES", "CRANE", "PIZZA", "JAZZY");
+        final ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            final Simulator.Report report = new Simulator(WordList.getDefault(), "TARES", pool).run(answers);
+
+            assertEquals(answers.size(), report.games());
+            assertEquals(answers.size(), Arrays.stream(report.histogram()).sum());
+            assertEquals(0, report.histogram()[0]);
+            assertEquals(1, report.histogram()[1]);
+            assertTrue(report.averageGuesses() > 1.0 && report.averageGuesses() <= Simulator.MAX_TURNS);
+            assertFalse(report.slowestStates().isEmpty());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testGamesEndWithTheSolvingGuess() {
+        final Simulator simulator = new Simulator(WordList.getDefault(), "TARES", ForkJoinPool.commonPool());
+        final List<List<Guess>> games = simulator.games(List.of("FALSE", "TARES"));
+
+        assertEquals(List.of(new Guess("TARES", "GGGGG")), games.get(1));
+        final List<Guess> game = games.get(0);
+        assertEquals("TARES", game.get(0).word());
+        assertEquals(new Guess("FALSE", "GGGGG"), game.get(game.size() - 1));
+    }
+
+    @Test
+    void testUnknownAnswerIsRejected() {
+        final Simulator simulator = new Simulator(WordList.getDefault(), "TARES", ForkJoinPool.commonPool());
+        assertThrows(IllegalArgumentException.class, () -> simulator.run(List.of("QQQQQ")));
+    }
+}
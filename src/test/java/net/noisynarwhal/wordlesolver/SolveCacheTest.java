@@ -0,0 +1,74 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolveCacheTest {
+
+    @Test
+    void testComputeDeduplicatesWithoutBlockingOtherStates() throws Exception {
+        final SolveCache cache = new SolveCache(new SolverConfig());
+        final WordList wordList = WordList.getDefault();
+        final SolverState slow = SolverState.initial(wordList).update(new Guess("CRANE", "BBBBB"));
+        final SolverState fast = SolverState.initial(wordList).update(new Guess("SLATE", "BBBBB"));
+        final List<Suggestion> suggestions = List.of(new Suggestion("PUDGY", 1.0, true));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger computed = new AtomicInteger();
+
+        final CompletableFuture<List<Suggestion>> first = CompletableFuture.supplyAsync(() ->
+                cache.compute(slow, state -> {
+                    computed.incrementAndGet();
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return suggestions;
+                }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        final CompletableFuture<List<Suggestion>> second = CompletableFuture.supplyAsync(() ->
+                cache.compute(slow, state -> {
+                    computed.incrementAndGet();
+                    return List.of();
+                }));
+
+        // Another state is computed while the first is still running
+        assertEquals(List.of(), cache.compute(fast, state -> List.of()));
+        assertTrue(cache.lookup(slow).isEmpty());
+
+        release.countDown();
+        assertSame(suggestions, first.get(10, TimeUnit.SECONDS));
+        assertSame(suggestions, second.get(10, TimeUnit.SECONDS));
+        assertEquals(1, computed.get());
+        assertEquals(suggestions, cache.lookup(slow).orElseThrow());
+    }
+
+    @Test
+    void testReplacedDictionaryStatesAreDropped() {
+        final SolveCache cache = new SolveCache(new SolverConfig());
+        final Dictionary tiny = Dictionary.of("tiny", List.of("FALSE", "VALSE"), List.of());
+        final SolverState replaced = tiny.initialState();
+        final SolverState kept = SolverState.initial(WordList.getDefault());
+        final List<Suggestion> suggestions = List.of(new Suggestion("FALSE", 1.0, true));
+        cache.compute(replaced, state -> suggestions);
+        cache.compute(kept, state -> suggestions);
+
+        // A dictionary of the same words is a different word list
+        cache.onDictionaryReplaced(new DictionaryReplacedEvent(Dictionary.of("tiny", List.of("FALSE", "VALSE"),
+                List.of())));
+        assertTrue(cache.lookup(replaced).isPresent());
+
+        cache.onDictionaryReplaced(new DictionaryReplacedEvent(tiny));
+        assertTrue(cache.lookup(replaced).isEmpty());
+        assertEquals(suggestions, cache.lookup(kept).orElseThrow());
+    }
+}
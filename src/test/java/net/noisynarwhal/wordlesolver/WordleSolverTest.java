@@ -0,0 +1,224 @@
+package net.noisynarwhal.wordlesolver;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WordleSolverTest {
+
+    @Test
+    void testPatternWithRepeatedLetters() {
+        assertEquals("GGGGG", Patterns.feedback("SPEED", "SPEED"));
+        assertEquals("YBGBB", Patterns.feedback("EERIE", "THREW"));
+        assertEquals("YYBBB", Patterns.feedback("LLAMA", "HELLO"));
+        assertEquals("BBBGG", Patterns.feedback("GEESE", "THOSE"));
+    }
+
+    @Test
+    void testPatternEncoding() {
+        for (int code = 0; code < Patterns.patternCount(5); code++) {
+            assertEquals(code, Patterns.encode(Patterns.decode(code, 5)));
+        }
+        assertEquals(Patterns.allGreen(5), Patterns.encode("GGGGG"));
+        assertEquals(0, Patterns.encode("BBBBB"));
+    }
+
+    @Test
+    void testMatrixMatchesComputedPatterns() {
+        final WordList wordList = WordList.of(List.of("TARES", "FALSE", "VALSE", "SPEED", "EERIE", "THREW", "LLAMA", "HELLO"));
+        final FeedbackMatrix matrix = wordList.feedback();
+
+        assertEquals(wordList.size(), matrix.size());
+        for (int guessId = 0; guessId < matrix.size(); guessId++) {
+            for (int answerId = 0; answerId < matrix.size(); answerId++) {
+                assertEquals(Patterns.compute(wordList.word(guessId).toCharArray(), wordList.word(answerId).toCharArray()),
+                        matrix.pattern(guessId, answerId));
+            }
+        }
+    }
+
+    @Test
+    void testPackedPatternsMatchLetterPatterns() {
+        final List<String> words = WordList.getWords().stream().sorted().limit(600).toList();
+        for (final String guess : words) {
+            final long packedGuess = Patterns.pack(guess);
+            for (final String target : words) {
+                assertEquals(Patterns.compute(guess.toCharArray(), target.toCharArray()),
+                        Patterns.compute(packedGuess, Patterns.pack(target), 5), guess + " / " + target);
+            }
+        }
+        assertEquals(Patterns.compute("EERIE", "THREW"), Patterns.compute("eerie", "threw"));
+        assertEquals(Patterns.encode("YYYBG"), Patterns.compute("AABBA", "BCAAA"));
+    }
+
+    @Test
+    void testLongerWordsAndOtherAlphabets() {
+        final WordList longer = WordList.of(List.of("ANOTHER", "BETWEEN", "EXAMPLE", "GENERAL", "HISTORY", "PROBLEM",
+                "SEVERAL", "THOUGHT", "BELIEVE", "COUNTRY"), 7, Alphabet.latin());
+        final WordList spanish = WordList.of(List.of("NIÑOS", "AÑEJO", "SUEÑO", "PERRO", "GATOS", "ZORRO"), 5,
+                Alphabet.of("ABCDEFGHIJKLMNÑOPQRSTUVWXYZ"));
+        for (final WordList wordList : List.of(longer, spanish)) {
+            final FeedbackMatrix matrix = wordList.feedback();
+            assertEquals(Patterns.patternCount(wordList.length()), matrix.patternCount());
+            for (int guessId = 0; guessId < matrix.size(); guessId++) {
+                for (int answerId = 0; answerId < matrix.size(); answerId++) {
+                    assertEquals(Patterns.compute(wordList.word(guessId).toCharArray(),
+                            wordList.word(answerId).toCharArray()), matrix.pattern(guessId, answerId));
+                }
+            }
+            assertFalse(new EntropyScorer().score(SolverState.initial(wordList)).isEmpty());
+        }
+
+        final String feedback = Patterns.feedback("COUNTRY", "HISTORY");
+        assertEquals(longer.allWords().retain(id -> Patterns.feedback("COUNTRY", longer.word(id)).equals(feedback)),
+                SolverState.initial(longer).update(new Guess("COUNTRY", feedback)).possibleWords());
+        assertThrows(IllegalArgumentException.class, () -> SolverState.initial(longer).update(new Guess("TARES", "BBBBB")));
+
+        // BAÑOS is not in the list, so its feedback is applied as a constraint
+        final SolverState narrowed = SolverState.initial(spanish).update(new Guess("BAÑOS", "BBYYY"));
+        assertArrayEquals(new int[]{spanish.id("SUEÑO")}, narrowed.possibleWords().toArray());
+    }
+
+    @Test
+    void testCandidateSet() {
+        final CandidateSet all = CandidateSet.all(130);
+        assertEquals(130, all.cardinality());
+        assertTrue(all.contains(129));
+
+        final CandidateSet even = all.retain(id -> id % 2 == 0);
+        assertEquals(65, even.cardinality());
+        assertFalse(even.contains(129));
+        assertSame(even, even.retain(id -> true));
+        assertEquals(even, all.retain(id -> id % 2 == 0));
+        assertArrayEquals(new int[]{0, 64, 128}, even.retain(id -> id % 64 == 0).toArray());
+    }
+
+    @Test
+    void testUpdateWithCustomWordList() {
+        final WordleSolver solver = new WordleSolver(List.of("tares", "false", "valse", "spEED", "bad"));
+        solver.update(new Guess("TARES", "BGBYY"));
+
+        final SortedSet<Suggestion> suggestions = solver.getBestSuggestions();
+        assertEquals(List.of("FALSE", "VALSE"), suggestions.stream().map(Suggestion::word).toList());
+        assertTrue(suggestions.stream().allMatch(Suggestion::isPossibleAnswer));
+        assertEquals(1.0, suggestions.first().entropy());
+    }
+
+    @Test
+    void testSolverStateIsImmutableAndShareable() throws Exception {
+        final WordList wordList = WordList.of(List.of("TARES", "FALSE", "VALSE", "SPEED", "BADGE"));
+        final SolverState initial = SolverState.initial(wordList);
+        final SolverState narrowed = initial.update(new Guess("TARES", "BGBYY"));
+
+        assertEquals(wordList.size(), initial.possibleWords().cardinality());
+        assertEquals(2, narrowed.possibleWords().cardinality());
+        assertSame(narrowed, narrowed.update(new Guess("TARES", "BGBYY")));
+        assertEquals(narrowed, initial.update(List.of(new Guess("TARES", "BGBYY"))));
+
+        final EntropyScorer scorer = new EntropyScorer();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<SortedSet<Suggestion>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> scorer.score(narrowed)));
+            }
+            for (final Future<SortedSet<Suggestion>> result : results) {
+                assertEquals(List.of("FALSE", "VALSE"), result.get().stream().map(Suggestion::word).toList());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testParallelScoringMatchesSequential() {
+        final WordList wordList = WordList.of(WordList.getWords().stream().sorted().limit(600).toList());
+        final Guess guess = new Guess("ABBEY", "BBBYB");
+        final ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            final WordleSolver sequential = new WordleSolver(wordList);
+            final WordleSolver parallel = new WordleSolver(wordList, pool);
+            sequential.update(guess);
+            parallel.update(guess);
+
+            assertEquals(sequential.getBestSuggestions().stream().map(Suggestion::toString).toList(),
+                    parallel.getBestSuggestions().stream().map(Suggestion::toString).toList());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testTopKSelectionMatchesFullRanking() {
+        final WordList wordList = WordList.of(WordList.getWords().stream().sorted().skip(2000).limit(800).toList());
+        final Random random = new Random(20220119L);
+        for (int game = 0; game < 20; game++) {
+            final String answer = wordList.word(random.nextInt(wordList.size()));
+            final WordleSolver solver = new WordleSolver(wordList);
+            for (int turn = 0; turn < 3 && solver.getPossibleWords().cardinality() > 1; turn++) {
+                final String guess = wordList.word(random.nextInt(wordList.size()));
+                solver.update(new Guess(guess, Patterns.feedback(guess, answer)));
+
+                assertEquals(fullRanking(wordList, solver.getPossibleWords()).stream().map(Suggestion::toString).toList(),
+                        solver.getBestSuggestions().stream().map(Suggestion::toString).toList());
+            }
+        }
+    }
+
+    @Test
+    void testMultiBoardScoringMatchesFullRanking() {
+        final WordList wordList = WordList.of(WordList.getWords().stream().sorted().skip(5000).limit(800).toList());
+        final EntropyScorer scorer = new EntropyScorer();
+        final Random random = new Random(20220127L);
+        for (int game = 0; game < 10; game++) {
+            final List<SolverState> boards = new ArrayList<>();
+            for (int board = 0; board < 4; board++) {
+                final String answer = wordList.word(random.nextInt(wordList.size()));
+                SolverState state = SolverState.initial(wordList);
+                for (int turn = 0; turn < 2; turn++) {
+                    final String guess = wordList.word(random.nextInt(wordList.size()));
+                    state = state.update(new Guess(guess, Patterns.feedback(guess, answer)));
+                }
+                boards.add(state);
+            }
+
+            assertEquals(fullRanking(wordList, boards.stream().map(SolverState::possibleWords).toList()).stream()
+                            .map(Suggestion::toString).toList(),
+                    scorer.score(boards).stream().map(Suggestion::toString).toList());
+        }
+    }
+
+    /**
+     * Rank every word of the list and filter the full ranking, as the solver did before top-K selection.
+     */
+    private static List<Suggestion> fullRanking(WordList wordList, CandidateSet possibleWords) {
+        return fullRanking(wordList, List.of(possibleWords));
+    }
+
+    /**
+     * Rank every word of the list by its summed entropy over several boards and filter the full ranking.
+     */
+    private static List<Suggestion> fullRanking(WordList wordList, List<CandidateSet> boards) {
+        final List<EntropyKernel> kernels = boards.stream()
+                .map(board -> new EntropyKernel(wordList.feedback(), board.toArray()))
+                .toList();
+        final TreeSet<Suggestion> ranking = new TreeSet<>();
+        for (int id = 0; id < wordList.size(); id++) {
+            final int guessId = id;
+            final double entropy = kernels.stream().mapToDouble(kernel -> kernel.exactEntropy(guessId)).sum();
+            ranking.add(new Suggestion(wordList.word(id), Math.round(entropy * 100) / 100.0,
+                    boards.stream().anyMatch(board -> board.contains(guessId))));
+        }
+        final List<Suggestion> selected = new ArrayList<>(ranking.stream().filter(Suggestion::isPossibleAnswer).toList());
+        if (!ranking.first().isPossibleAnswer()) {
+            ranking.stream().limit(WordleSolver.MIN_SUGGESTIONS).filter(s -> !s.isPossibleAnswer()).forEach(selected::add);
+        }
+        return List.copyOf(new TreeSet<>(selected));
+    }
+}